@@ -183,13 +183,12 @@ const CloseButton = styled.button`
 
 export const NotificationBell: React.FC = () => {
     const userId = localStorage.getItem("userId") || "";
-    const { notifications = [], markAsRead, markAllAsRead } = useNotifications(userId);
+    const { notifications = [], unreadCount, hasMore, loadMore, markAsRead, markAllAsRead } = useNotifications(userId);
     const [isOpen, setIsOpen] = useState(false);
     const [selectedNotification, setSelectedNotification] = useState<Notification | null>(null);
     const dropdownRef = useRef<HTMLDivElement>(null);
     const bellRef = useRef<HTMLButtonElement>(null);
 
-    const unreadCount = notifications.filter(n => !n.read).length;
     const hasNotifications = notifications.length > 0;
 
     useEffect(() => {
@@ -298,6 +297,11 @@ export const NotificationBell: React.FC = () => {
                                 <Time>{formatTime(notification.timestamp)}</Time>
                             </NotificationItem>
                         ))}
+                        {hasMore && (
+                            <MarkAllButton onClick={loadMore} aria-label="Загрузить ещё уведомления">
+                                Показать ещё
+                            </MarkAllButton>
+                        )}
                     </NotificationList>
                 )}
             </Dropdown>
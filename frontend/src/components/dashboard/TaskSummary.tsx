@@ -50,6 +50,7 @@ interface TaskSummaryData {
     todo: number;
     inProgress: number;
     done: number;
+    overdueCount: number;
     overdue: Task[];
     nearest: Task[];
 }
@@ -267,15 +268,15 @@ const TaskSummary: React.FC = () => {
 
             {/* Overdue Tasks */}
             <Grid item xs={12} md={6}>
-                <Card elevation={1} sx={{ height: '100%', bgcolor: summary.overdue.length > 0 ? alpha(theme.palette.error.light, 0.05) : 'inherit' }}>
+                <Card elevation={1} sx={{ height: '100%', bgcolor: summary.overdueCount > 0 ? alpha(theme.palette.error.light, 0.05) : 'inherit' }}>
                     <CardContent>
                         <Box display="flex" alignItems="center" mb={1}>
                             <AssignmentLateIcon color="error" sx={{ mr: 1 }} />
                             <Typography variant="h6">
                                 Overdue Tasks
-                                {summary.overdue.length > 0 && (
+                                {summary.overdueCount > 0 && (
                                     <Chip
-                                        label={summary.overdue.length}
+                                        label={summary.overdueCount}
                                         size="small"
                                         color="error"
                                         sx={{ ml: 1, height: 20 }}
@@ -0,0 +1,60 @@
+import { useEffect, useRef } from "react";
+import SockJS from "sockjs-client";
+import { Client, over } from "stompjs";
+
+export type BoardEventType =
+    | "TASK_CREATED"
+    | "TASK_UPDATED"
+    | "TASK_MOVED"
+    | "TASK_DELETED"
+    | "COLUMN_CREATED"
+    | "COLUMN_UPDATED"
+    | "COLUMN_DELETED";
+
+export interface BoardEvent<T = unknown> {
+    type: BoardEventType;
+    projectId: string;
+    boardId: string;
+    entityId: string;
+    changeSeq: number;
+    payload: T | null; // для *_DELETED — null
+    timestamp: string;
+}
+
+// Подписка на события одной доски: сервер шлёт только изменения этой доски.
+// onConnect вызывается после каждой подписки — время догнать пропущенное через /changes
+export const useBoardEvents = (
+    projectId: string | undefined,
+    boardId: string | undefined,
+    onEvent: (event: BoardEvent) => void,
+    onConnect?: () => void
+) => {
+    const handlerRef = useRef(onEvent);
+    handlerRef.current = onEvent;
+    const connectRef = useRef(onConnect);
+    connectRef.current = onConnect;
+
+    useEffect(() => {
+        if (!projectId || !boardId) return;
+
+        const socket = new SockJS(`${import.meta.env.VITE_WS_URL}/ws`);
+        const client: Client = over(socket);
+        client.debug = () => {};
+        let isConnected = false;
+
+        const token = localStorage.getItem("accessToken");
+        client.connect({ Authorization: `Bearer ${token}` }, () => {
+            isConnected = true;
+            client.subscribe(`/topic/projects/${projectId}/boards/${boardId}`, (message) => {
+                handlerRef.current(JSON.parse(message.body));
+            });
+            connectRef.current?.();
+        });
+
+        return () => {
+            if (isConnected) {
+                client.disconnect(() => console.log("🔌 WebSocket доски отключён"));
+            }
+        };
+    }, [projectId, boardId]);
+};
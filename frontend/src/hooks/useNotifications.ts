@@ -11,8 +11,15 @@ export interface Notification {
     read: boolean;
 }
 
+interface NotificationPage {
+    items: Notification[];
+    nextCursor: string | null;
+}
+
 export const useNotifications = (userId: string | null) => {
     const [notifications, setNotifications] = useState<Notification[]>([]);
+    const [unreadCount, setUnreadCount] = useState(0);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
 
     useEffect(() => {
         if (!userId || userId === "null") {
@@ -22,8 +29,14 @@ export const useNotifications = (userId: string | null) => {
 
         const fetchInitial = async () => {
             try {
-                const res = await axiosInstance.get(`/notifications/${userId}`);
-                setNotifications(res.data);
+                // Первая страница и счётчик непрочитанных — вся история больше не грузится
+                const [pageRes, countRes] = await Promise.all([
+                    axiosInstance.get<NotificationPage>(`/notifications/${userId}`),
+                    axiosInstance.get<{ count: number }>(`/notifications/${userId}/unread-count`),
+                ]);
+                setNotifications(pageRes.data.items);
+                setNextCursor(pageRes.data.nextCursor);
+                setUnreadCount(countRes.data.count);
             } catch (err) {
                 console.error("❌ Ошибка при загрузке уведомлений:", err);
             }
@@ -37,15 +50,19 @@ export const useNotifications = (userId: string | null) => {
         const client: Client = over(socket);
         let isConnected = false;
 
-        client.connect({}, () => {
+        // Без токена сервер не даст подписаться на /topic/notifications/{userId}
+        const token = localStorage.getItem("accessToken");
+        client.connect({ Authorization: `Bearer ${token}` }, () => {
             isConnected = true;
 
             client.subscribe(`/topic/notifications/${userId}`, (message) => {
-                const notif: Notification = JSON.parse(message.body);
+                // Сервер присылает пачку уведомлений одним фреймом (новые сверху)
+                const fresh: Notification[] = JSON.parse(message.body);
 
+                setUnreadCount((count) => count + fresh.filter((n) => !n.read).length);
                 setNotifications((prev) => {
-                    const alreadyExists = prev.some((n) => n.id === notif.id);
-                    return alreadyExists ? prev : [notif, ...prev];
+                    const known = new Set(prev.map((n) => n.id));
+                    return [...fresh.filter((n) => !known.has(n.id)), ...prev];
                 });
             });
         });
@@ -57,9 +74,25 @@ export const useNotifications = (userId: string | null) => {
         };
     }, [userId]);
 
+    const loadMore = async () => {
+        if (!nextCursor) return;
+        try {
+            const res = await axiosInstance.get<NotificationPage>(`/notifications/${userId}`, {
+                params: { cursor: nextCursor },
+            });
+            setNotifications((prev) => [...prev, ...res.data.items]);
+            setNextCursor(res.data.nextCursor);
+        } catch (err) {
+            console.error("❌ Ошибка при загрузке уведомлений:", err);
+        }
+    };
+
     const markAsRead = async (id: string) => {
         try {
             await axiosInstance.put(`/notifications/${id}/read`);
+            if (notifications.some((n) => n.id === id && !n.read)) {
+                setUnreadCount((count) => Math.max(0, count - 1));
+            }
             setNotifications((prev) =>
                 prev.map((n) => (n.id === id ? { ...n, read: true } : n))
             );
@@ -72,10 +105,11 @@ export const useNotifications = (userId: string | null) => {
         try {
             await axiosInstance.put(`/notifications/${userId}/mark-all-read`);
             setNotifications((prev) => prev.map((n) => ({ ...n, read: true })));
+            setUnreadCount(0);
         } catch (err) {
             console.error("❌ Ошибка при пометке всех как прочитанных:", err);
         }
     };
 
-    return { notifications, markAsRead, markAllAsRead };
+    return { notifications, unreadCount, hasMore: nextCursor !== null, loadMore, markAsRead, markAllAsRead };
 };
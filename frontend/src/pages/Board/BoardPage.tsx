@@ -1,6 +1,7 @@
-import React, { useEffect, useState } from 'react';
+import React, { useEffect, useRef, useState } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
 import axiosInstance from '../../api/axiosInstance.ts';
+import { useBoardEvents } from '../../hooks/useBoardEvents.ts';
 import styled from 'styled-components';
 import Confetti from 'react-confetti';
 
@@ -58,6 +59,7 @@ interface Task {
     columnId: string;
     status: 'TODO' | 'IN_PROGRESS' | 'DONE';
     assigneeIds: string[]
+    version: number;
 }
 interface StatusButtonProps {
     $isActive: boolean;
@@ -753,6 +755,8 @@ const BoardPage: React.FC = () => {
         setSnackbar({ open: true, message, severity });
     };
     const [boardName, setBoardName] = useState<string>('Project Board');
+    // Последний применённый номер изменения доски: с него догоняем через /changes
+    const changeSeqRef = useRef<number | null>(null);
 
     useEffect(() => {
         const fetchUser = async () => {
@@ -771,26 +775,16 @@ const BoardPage: React.FC = () => {
         setLoading(true);
         (async () => {
             try {
-                // 🆕 Fetch all boards of the project
-                const boardsRes = await axiosInstance.get(`/boards/project/${projectId}`);
-                const foundBoard = boardsRes.data.find((b: any) => b.id === boardId);
-
-                if (foundBoard) {
-                    setBoardName(foundBoard.name);
-                } else {
-                    setBoardName('Unknown Board');
-                }
+                // 📦 Board, columns and tasks in a single request
+                const snapshotRes = await axiosInstance.get<{ board: { name: string }; changeSeq: number; columns: Column[]; tasks: Task[] }>(
+                    `/boards/${boardId}/snapshot`
+                );
+                setBoardName(snapshotRes.data.board?.name ?? 'Unknown Board');
+                changeSeqRef.current = snapshotRes.data.changeSeq;
 
-                // Fetch columns
-                const colsRes = await axiosInstance.get<Column[]>(`/columns/by-board/${boardId}`);
-                const sorted = colsRes.data.sort((a, b) => a.order - b.order);
+                const sorted = snapshotRes.data.columns.sort((a, b) => a.order - b.order);
                 setColumns(sorted);
-
-                // Fetch tasks
-                const lists = await Promise.all(
-                    sorted.map(col => axiosInstance.get<Task[]>(`/tasks/column/${col.id}`).then(r => r.data))
-                );
-                setTasks(lists.flat());
+                setTasks(snapshotRes.data.tasks);
 
                 // Fetch members
                 const membersRes = await axiosInstance.get(`/projects/${projectId}/members`);
@@ -807,7 +801,81 @@ const BoardPage: React.FC = () => {
         })();
     }, [boardId]);
 
+    // ─── Delta-sync: после (пере)подключения докачиваем только изменения ──
+    const syncChanges = async () => {
+        const since = changeSeqRef.current;
+        if (since === null) return;
+        try {
+            const res = await axiosInstance.get<{
+                changeSeq: number;
+                resetRequired: boolean;
+                columns: Omit<Column, 'order'>[];
+                tasks: Task[];
+                deleted: { entityType: 'TASK' | 'COLUMN'; entityId: string }[];
+            }>(`/boards/${boardId}/changes`, { params: { since } });
+            const delta = res.data;
+            if (delta.resetRequired) {
+                window.location.reload(); // история удалений уже очищена — нужен полный снимок
+                return;
+            }
+            const deletedTasks = new Set(delta.deleted.filter(d => d.entityType === 'TASK').map(d => d.entityId));
+            const deletedColumns = new Set(delta.deleted.filter(d => d.entityType === 'COLUMN').map(d => d.entityId));
+            const changedTasks = new Map(delta.tasks.map(t => [t.id, t]));
+
+            setColumns(prev => {
+                const next = prev
+                    .filter(c => !deletedColumns.has(c.id))
+                    .map(c => {
+                        const changed = delta.columns.find(dc => dc.id === c.id);
+                        return changed ? { ...c, name: changed.name } : c;
+                    });
+                delta.columns
+                    .filter(dc => !next.some(c => c.id === dc.id))
+                    .forEach(dc => next.push({ ...dc, order: next.length }));
+                return next;
+            });
+            setTasks(prev => [
+                ...prev.filter(t => !deletedTasks.has(t.id) && !deletedColumns.has(t.columnId) && !changedTasks.has(t.id)),
+                ...changedTasks.values(),
+            ]);
+            changeSeqRef.current = Math.max(changeSeqRef.current ?? 0, delta.changeSeq);
+        } catch (e) {
+            console.error('Failed to sync board changes', e);
+        }
+    };
 
+    // ─── Realtime: применяем события доски без перезагрузки ──
+    useBoardEvents(projectId, boardId, (event) => {
+        if (changeSeqRef.current !== null) {
+            changeSeqRef.current = Math.max(changeSeqRef.current, event.changeSeq);
+        }
+        switch (event.type) {
+            case 'TASK_CREATED':
+            case 'TASK_UPDATED':
+            case 'TASK_MOVED': {
+                const task = event.payload as Task;
+                setTasks(prev => prev.some(t => t.id === task.id)
+                    ? prev.map(t => t.id === task.id ? task : t)
+                    : [...prev, task]);
+                break;
+            }
+            case 'TASK_DELETED':
+                setTasks(prev => prev.filter(t => t.id !== event.entityId));
+                break;
+            case 'COLUMN_CREATED':
+            case 'COLUMN_UPDATED': {
+                const column = event.payload as Omit<Column, 'order'>;
+                setColumns(prev => prev.some(c => c.id === column.id)
+                    ? prev.map(c => c.id === column.id ? { ...c, name: column.name } : c)
+                    : [...prev, { ...column, order: prev.length }]);
+                break;
+            }
+            case 'COLUMN_DELETED':
+                setColumns(prev => prev.filter(c => c.id !== event.entityId));
+                setTasks(prev => prev.filter(t => t.columnId !== event.entityId));
+                break;
+        }
+    }, syncChanges);
 
     // Filter tasks based on search term
     const filteredTasks = tasks.filter(task =>
@@ -829,18 +897,22 @@ const BoardPage: React.FC = () => {
         updated[idx] = movedTask;
         setTasks(updated);
 
+        // Переносим только колонку; version — чтобы не затереть чужую правку
         axiosInstance
-            .put(`/tasks/${draggableId}`, {
-                title: movedTask.title,
-                description: movedTask.description,
-                priority: movedTask.priority,
-                status: movedTask.status,
-                deadline: movedTask.deadline,
-                columnId: movedTask.columnId,
-                assigneeIds: movedTask.assigneeIds || [] // ✅ исправлено
+            .patch<Task>(`/tasks/${draggableId}`, {
+                version: movedTask.version,
+                columnId: movedTask.columnId
             })
+            .then(r => setTasks(prev => prev.map(t => t.id === r.data.id ? r.data : t)))
             .catch(err => {
                 console.error(err);
+                if (err.response?.status === 409) {
+                    // Задачу уже изменили — показываем актуальное состояние с сервера
+                    const current: Task = err.response.data;
+                    setTasks(prev => prev.map(t => t.id === current.id ? current : t));
+                    notify('Task was changed by someone else', 'error');
+                    return;
+                }
                 notify('Failed to move task', 'error');
                 setTasks(tasks); // вернуть старое состояние
             });
@@ -911,7 +983,8 @@ const BoardPage: React.FC = () => {
             deadline: newTaskDueDate || null,
             columnId: currentTask.columnId,
             status: newTaskStatus,
-            assigneeIds: selectedAssigneeIds
+            assigneeIds: selectedAssigneeIds,
+            version: currentTask.id ? currentTask.version : undefined
         };
 
         const call = currentTask.id
@@ -923,7 +996,7 @@ const BoardPage: React.FC = () => {
                 setTasks(prev =>
                     currentTask.id
                         ? prev.map(t => t.id === r.data.id ? r.data : t)
-                        : [...prev, r.data]
+                        : [...prev.filter(t => t.id !== r.data.id), r.data] // событие по сокету могло прийти раньше
                 );
                 notify(currentTask.id ? 'Task updated' : 'Task added');
                 setIsTaskDialogOpen(false);
@@ -931,6 +1004,13 @@ const BoardPage: React.FC = () => {
             })
             .catch(err => {
                 console.error(err);
+                if (currentTask.id && err.response?.status === 409) {
+                    const current: Task = err.response.data;
+                    setTasks(prev => prev.map(t => t.id === current.id ? current : t));
+                    openEditTaskModal(current);
+                    notify('Task was changed by someone else — review and save again', 'error');
+                    return;
+                }
                 console.error("Error payload:", payload);
                 notify(`Failed to ${currentTask.id ? 'update' : 'add'} task`, 'error');
             });
@@ -977,7 +1057,7 @@ const BoardPage: React.FC = () => {
                 setColumns(prev =>
                     currentColumn
                         ? prev.map(c => c.id === r.data.id ? r.data : c)
-                        : [...prev, r.data]
+                        : [...prev.filter(c => c.id !== r.data.id), r.data]
                 );
                 notify(currentColumn ? 'Column updated' : 'Column added');
                 setIsColumnDialogOpen(false);
@@ -64,7 +64,6 @@ const DashboardPage = () => {
     const [currentTab, setCurrentTab] = useState(0);
     const [graphView, setGraphView] = useState('pie');
     const [weeklyProgressData, setWeeklyProgressData] = useState([]);
-    const [allTasks, setAllTasks] = useState([]);
 
     useEffect(() => {
         const loadUserAndStats = async () => {
@@ -110,21 +109,6 @@ const DashboardPage = () => {
         loadUserAndStats();
     }, []);
 
-    useEffect(() => {
-        const loadUserTasks = async () => {
-            try {
-                const res = await axiosInstance.get('/tasks/my');
-                setAllTasks(res.data);
-            } catch (err) {
-                console.error("Ошибка при загрузке задач пользователя:", err);
-            }
-        };
-
-        if (userId) {
-            loadUserTasks();
-        }
-    }, [userId]);
-
     // Demo data
     const completionPercentage = summary ? Math.round((summary.done / summary.total) * 100) : 0;
 
@@ -154,9 +138,10 @@ const DashboardPage = () => {
 
     const PRIORITIES = ['HIGH', 'MEDIUM', 'LOW'];
 
-    const priorityData = allTasks.length > 0
+    // 🔸 Распределение по приоритетам приходит в сводке (byPriority)
+    const priorityData = summary?.byPriority
         ? PRIORITIES.map(priority => {
-            const count = allTasks.filter(task => task.priority === priority).length;
+            const count = summary.byPriority[priority] || 0;
             return {
                 name: getPriorityLabel(priority.toLowerCase()),
                 value: count,
@@ -40,6 +40,11 @@ interface Activity {
     type: "member" | "project" | "task";
 }
 
+interface ActivityPage {
+    items: Activity[];
+    nextCursor: string | null;
+}
+
 interface Board {
     id: string;
     name: string;
@@ -872,13 +877,13 @@ const ProjectDetailsPage: React.FC = () => {
             const [projectRes, membersRes, activityRes, boardsRes] = await Promise.all([
                 axiosInstance.get<Project>(`/projects/${projectId}`),
                 axiosInstance.get<Member[]>(`/projects/${projectId}/members`),
-                axiosInstance.get<Activity[]>(`/projects/${projectId}/activity`),
+                axiosInstance.get<ActivityPage>(`/projects/${projectId}/activity`),
                 axiosInstance.get<Board[]>(`/boards/project/${projectId}`),
             ]);
 
             setProject(projectRes.data);
             setMembers(membersRes.data);
-            setActivity(activityRes.data);
+            setActivity(activityRes.data.items);
             setBoards(boardsRes.data);
             setError("");
         } catch (err) {
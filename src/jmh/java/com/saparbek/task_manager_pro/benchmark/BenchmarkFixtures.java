@@ -0,0 +1,195 @@
+package com.saparbek.task_manager_pro.benchmark;
+
+import com.saparbek.task_manager_pro.modules.notification.repository.OutboxMailRepository;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskAssigneeRow;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskProjectName;
+import com.saparbek.task_manager_pro.modules.project.model.Board;
+import com.saparbek.task_manager_pro.modules.project.model.ColumnEntity;
+import com.saparbek.task_manager_pro.modules.project.model.Project;
+import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskPriority;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
+import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
+import com.saparbek.task_manager_pro.modules.user.model.Role;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import com.saparbek.task_manager_pro.modules.user.repository.UserRepository;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Общие данные и заглушки репозиториев для бенчмарков: без Spring-контекста и без БД
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(User.builder()
+                    .id(UUID.randomUUID())
+                    .username("user" + i)
+                    .email("user" + i + "@example.com")
+                    .password("secret")
+                    .role(Role.USER)
+                    .build());
+        }
+        return users;
+    }
+
+    static List<Task> tasks(int count, List<User> users) {
+        ColumnEntity column = ColumnEntity.builder()
+                .id(UUID.randomUUID())
+                .name("In Progress")
+                .board(Board.builder().id(UUID.randomUUID()).project(Project.builder().id(UUID.randomUUID()).name("Bench").build()).build())
+                .build();
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<User> assignees = new ArrayList<>();
+            assignees.add(users.get(i % users.size()));
+            assignees.add(users.get((i + 1) % users.size()));
+
+            tasks.add(Task.builder()
+                    .id(UUID.randomUUID())
+                    .title("Task " + i)
+                    .description("Description of task " + i + " with a few more words to look realistic")
+                    .priority(TaskPriority.values()[i % TaskPriority.values().length])
+                    .status(TaskStatus.values()[i % TaskStatus.values().length])
+                    .deadline(LocalDate.now().plusDays(i % 14 - 7))
+                    .createdAt(LocalDateTime.now().minusDays(i % 30))
+                    .column(column)
+                    .assignees(assignees)
+                    .build());
+        }
+        return tasks;
+    }
+
+    // Метамодель Hibernate без подключения к БД — достаточно для построения Criteria-предикатов
+    static SessionFactory criteriaSessionFactory() {
+        return new Configuration()
+                .addAnnotatedClass(Task.class)
+                .addAnnotatedClass(ColumnEntity.class)
+                .addAnnotatedClass(Board.class)
+                .addAnnotatedClass(Project.class)
+                .addAnnotatedClass(User.class)
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+                .setProperty("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .buildSessionFactory();
+    }
+
+    /**
+     * TaskRepository, отдающий заранее подготовленные задачи.
+     * Если передан criteriaBuilder, спецификации из findAll(spec, pageable) реально строят предикаты.
+     */
+    @SuppressWarnings("unchecked")
+    static TaskRepository taskRepository(List<Task> tasks, CriteriaBuilder criteriaBuilder) {
+        return (TaskRepository) Proxy.newProxyInstance(
+                TaskRepository.class.getClassLoader(),
+                new Class<?>[]{TaskRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllByColumnId", "findByDeadlineAndAssignee" -> tasks;
+                    case "findAll" -> {
+                        if (args == null || args.length == 0) {
+                            yield tasks;
+                        }
+                        if (args.length == 2 && args[0] instanceof Specification<?> spec && args[1] instanceof Pageable pageable) {
+                            if (criteriaBuilder != null) {
+                                CriteriaQuery<Task> query = criteriaBuilder.createQuery(Task.class);
+                                Root<Task> root = query.from(Task.class);
+                                query.where(((Specification<Task>) spec).toPredicate(root, query, criteriaBuilder));
+                            }
+                            List<Task> page = tasks.subList(0, Math.min(tasks.size(), pageable.getPageSize()));
+                            yield new PageImpl<>(page, pageable, tasks.size());
+                        }
+                        throw new UnsupportedOperationException(method.toString());
+                    }
+                    case "findById" -> tasks.stream().filter(t -> t.getId().equals(args[0])).findFirst();
+                    case "findAssigneesByTaskIds" -> tasks.stream()
+                            .flatMap(task -> task.getAssignees().stream().map(user -> assigneeRow(task, user)))
+                            .toList();
+                    case "findProjectNamesByTaskIds" -> tasks.stream()
+                            .map(BenchmarkFixtures::projectName)
+                            .toList();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubTaskRepository";
+                    default -> throw new UnsupportedOperationException(method.toString());
+                });
+    }
+
+    // Outbox без БД: save просто возвращает письмо
+    static OutboxMailRepository outboxMailRepository() {
+        return (OutboxMailRepository) Proxy.newProxyInstance(
+                OutboxMailRepository.class.getClassLoader(),
+                new Class<?>[]{OutboxMailRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubOutboxMailRepository";
+                    default -> throw new UnsupportedOperationException(method.toString());
+                });
+    }
+
+    private static TaskAssigneeRow assigneeRow(Task task, User user) {
+        return new TaskAssigneeRow() {
+            @Override
+            public UUID getTaskId() {
+                return task.getId();
+            }
+
+            @Override
+            public UUID getUserId() {
+                return user.getId();
+            }
+
+            @Override
+            public String getUsername() {
+                return user.getUsername();
+            }
+        };
+    }
+
+    private static TaskProjectName projectName(Task task) {
+        String name = task.getColumn().getBoard().getProject().getName();
+        return new TaskProjectName() {
+            @Override
+            public UUID getTaskId() {
+                return task.getId();
+            }
+
+            @Override
+            public String getProjectName() {
+                return name;
+            }
+        };
+    }
+
+    static UserRepository userRepository(List<User> users) {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> users.stream().filter(u -> u.getId().equals(args[0])).findFirst();
+                    case "findByEmail" -> users.stream().filter(u -> u.getEmail().equals(args[0])).findFirst();
+                    case "findAllById" -> users;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubUserRepository";
+                    default -> throw new UnsupportedOperationException(method.toString());
+                });
+    }
+}
@@ -0,0 +1,85 @@
+package com.saparbek.task_manager_pro.benchmark;
+
+import com.saparbek.task_manager_pro.auth.model.TokenClaims;
+import com.saparbek.task_manager_pro.auth.service.JwtService;
+import com.saparbek.task_manager_pro.modules.user.model.Role;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import com.saparbek.task_manager_pro.modules.user.security.CustomUserDetails;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Стоимость проверки JWT на один запрос: старая схема (3 разбора + ключ на каждый вызов) против новой
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0";
+
+    private JwtService cachedService;
+    private JwtService uncachedService;
+    private CustomUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() {
+        cachedService = new JwtService(SECRET, 30, 10_000);
+        uncachedService = new JwtService(SECRET, 0, 10_000);
+        userDetails = new CustomUserDetails(User.builder()
+                .id(UUID.randomUUID())
+                .username("bench")
+                .email("bench@example.com")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+        token = cachedService.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public boolean legacyPerRequest() {
+        // JwtFilter: extractUsername, затем isTokenValid = extractUsername + isTokenExpired
+        String username = legacyExtract(token, Claims::getSubject);
+        return username != null
+                && legacyExtract(token, Claims::getSubject).equals(userDetails.getUsername())
+                && !legacyExtract(token, Claims::getExpiration).before(new Date());
+    }
+
+    @Benchmark
+    public boolean parseOncePerRequest() {
+        TokenClaims claims = uncachedService.parseToken(token);
+        return uncachedService.isTokenValid(claims, userDetails);
+    }
+
+    @Benchmark
+    public boolean parseOnceCachedPerRequest() {
+        TokenClaims claims = cachedService.parseToken(token);
+        return cachedService.isTokenValid(claims, userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachedService.generateToken(userDetails);
+    }
+
+    private static <T> T legacyExtract(String token, Function<Claims, T> resolver) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        Claims claims = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+        return resolver.apply(claims);
+    }
+}
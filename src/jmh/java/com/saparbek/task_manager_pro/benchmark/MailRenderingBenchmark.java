@@ -0,0 +1,96 @@
+package com.saparbek.task_manager_pro.benchmark;
+
+import com.saparbek.task_manager_pro.modules.notification.service.MailOutboxService;
+import com.saparbek.task_manager_pro.modules.notification.service.MailService;
+import com.saparbek.task_manager_pro.modules.notification.service.MailTemplateRenderer;
+import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 10k писем-напоминаний: старый String.formatted на каждого получателя против кэшированного шаблона Thymeleaf
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2) // Thymeleaf долго прогревается
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MailRenderingBenchmark {
+
+    private static final int RECIPIENTS = 10_000;
+
+    // 10000 — у каждого своя задача, 100 — по 100 получателей на одну задачу (тело письма общее)
+    @Param({"10000", "100"})
+    private int distinctTasks;
+
+    private Map<User, List<Task>> tasksByRecipient;
+    private MailService mailService;
+
+    @Setup
+    public void setup() {
+        List<User> users = BenchmarkFixtures.users(RECIPIENTS);
+        List<Task> tasks = BenchmarkFixtures.tasks(distinctTasks, users);
+
+        tasksByRecipient = new LinkedHashMap<>();
+        for (int i = 0; i < RECIPIENTS; i++) {
+            tasksByRecipient.put(users.get(i), List.of(tasks.get(i % distinctTasks)));
+        }
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        templateEngine.setEnableSpringELCompiler(true);
+
+        mailService = new MailService(
+                new MailOutboxService(BenchmarkFixtures.outboxMailRepository()),
+                new MailTemplateRenderer(templateEngine),
+                BenchmarkFixtures.taskRepository(tasks, null)
+        );
+    }
+
+    @Benchmark
+    public void legacyFormattedPerRecipient(Blackhole blackhole) {
+        tasksByRecipient.forEach((recipient, tasks) -> {
+            Task task = tasks.get(0);
+            blackhole.consume("""
+            <html>
+            <body style="font-family: Arial, sans-serif; padding: 20px; background-color: #f8f9fa;">
+                <h2 style="color: #ffc107;">📅 Приближается дедлайн</h2>
+                <p><strong>Задача:</strong> %s</p>
+                <p><strong>Дедлайн:</strong> %s</p>
+                <p><strong>Проект:</strong> %s</p>
+                <p>Пожалуйста, выполните задачу до конца дня.</p>
+                <hr>
+                <p style="font-size: 12px; color: #6c757d;">Это автоматическое уведомление. Платформа Task Manager PRO.</p>
+            </body>
+            </html>
+            """.formatted(
+                    task.getTitle(),
+                    task.getDeadline().toString(),
+                    task.getColumn()
+                            .getBoard()
+                            .getProject()
+                            .getName()
+            ));
+        });
+    }
+
+    @Benchmark
+    public void templateDigests() {
+        mailService.sendUpcomingDeadlineDigests(tasksByRecipient);
+    }
+}
@@ -0,0 +1,75 @@
+package com.saparbek.task_manager_pro.benchmark;
+
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskFilterRequest;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskPriority;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
+import com.saparbek.task_manager_pro.modules.project.service.TaskService;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Построение Specification и Criteria-предикатов в TaskService.filterTasksPost (результат запроса пустой)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskFilterSpecificationBenchmark {
+
+    private SessionFactory sessionFactory;
+    private TaskService taskService;
+    private TaskFilterRequest fullFilter;
+    private TaskFilterRequest statusOnlyFilter;
+
+    @Setup
+    public void setup() {
+        List<User> users = BenchmarkFixtures.users(5);
+        sessionFactory = BenchmarkFixtures.criteriaSessionFactory();
+        taskService = new TaskService(
+                BenchmarkFixtures.taskRepository(List.of(), sessionFactory.getCriteriaBuilder()),
+                null,
+                BenchmarkFixtures.userRepository(users),
+                null,
+                null,
+                null,
+                null
+        );
+
+        fullFilter = new TaskFilterRequest();
+        fullFilter.setStatuses(List.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS));
+        fullFilter.setPriorities(List.of(TaskPriority.HIGH, TaskPriority.MEDIUM));
+        fullFilter.setAssigneeId(users.get(0).getId());
+        fullFilter.setColumnId(UUID.randomUUID());
+        fullFilter.setOverdue(true);
+        fullFilter.setDeadlineAfter(LocalDate.now().minusMonths(1));
+        fullFilter.setDeadlineBefore(LocalDate.now().plusMonths(1));
+        fullFilter.setSortBy("deadline");
+        fullFilter.setSortDirection("DESC");
+        fullFilter.setPageSize(50);
+
+        statusOnlyFilter = new TaskFilterRequest();
+        statusOnlyFilter.setStatuses(List.of(TaskStatus.DONE));
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<TaskResponse> fullFilter() {
+        return taskService.filterTasksPost(fullFilter);
+    }
+
+    @Benchmark
+    public List<TaskResponse> statusOnlyFilter() {
+        return taskService.filterTasksPost(statusOnlyFilter);
+    }
+}
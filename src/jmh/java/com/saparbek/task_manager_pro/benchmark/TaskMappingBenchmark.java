@@ -0,0 +1,52 @@
+package com.saparbek.task_manager_pro.benchmark;
+
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.project.service.TaskService;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Маппинг Task -> TaskResponse: TaskService.getTasksByColumn (исполнители пачкой) и TaskResponse.from
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskMappingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private List<Task> tasks;
+    private TaskService taskService;
+
+    @Setup
+    public void setup() {
+        List<User> users = BenchmarkFixtures.users(20);
+        tasks = BenchmarkFixtures.tasks(size, users);
+        taskService = new TaskService(
+                BenchmarkFixtures.taskRepository(tasks, null),
+                null,
+                BenchmarkFixtures.userRepository(users),
+                null,
+                null,
+                null,
+                null
+        );
+    }
+
+    @Benchmark
+    public List<TaskResponse> taskServiceMapToResponse() {
+        return taskService.getTasksByColumn(UUID.randomUUID());
+    }
+
+    @Benchmark
+    public List<TaskResponse> taskResponseFrom() {
+        return tasks.stream().map(TaskResponse::from).toList();
+    }
+}
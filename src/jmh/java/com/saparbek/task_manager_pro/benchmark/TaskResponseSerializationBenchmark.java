@@ -0,0 +1,40 @@
+package com.saparbek.task_manager_pro.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson-сериализация списков TaskResponse с настройками, близкими к Spring Boot
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskResponseSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<TaskResponse> responses;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        responses = BenchmarkFixtures.tasks(size, BenchmarkFixtures.users(20))
+                .stream()
+                .map(TaskResponse::from)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeTaskResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
@@ -1,5 +1,6 @@
 package com.saparbek.task_manager_pro.auth.config;
 
+import com.saparbek.task_manager_pro.auth.model.TokenClaims;
 import com.saparbek.task_manager_pro.auth.service.JwtService;
 import com.saparbek.task_manager_pro.modules.user.service.CustomUserDetailsService;
 import com.saparbek.task_manager_pro.modules.user.service.UserService;
@@ -42,7 +43,7 @@ public class JwtFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
+        final TokenClaims claims;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -52,16 +53,18 @@ public class JwtFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            username = jwtService.extractUsername(jwt);
+            claims = jwtService.parseToken(jwt); // подпись проверяется один раз
         } catch (Exception e) {
             filterChain.doFilter(request, response);
             return;
         }
 
+        final String username = claims.getSubject();
+
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = customUserDetailsService.loadCachedUserByUsername(username);
 
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails, null, userDetails.getAuthorities()
@@ -2,6 +2,7 @@ package com.saparbek.task_manager_pro.auth.config;
 
 import com.saparbek.task_manager_pro.modules.user.service.CustomUserDetailsService;
 import com.saparbek.task_manager_pro.modules.user.service.UserService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -70,6 +71,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> {}) // ✅ теперь это безопасный способ включить CORS
                 .authorizeHttpRequests(auth -> auth
+                        // ASYNC-диспетчеризация потоковых ответов (NDJSON): исходный запрос уже проверен
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/login", "/register", "/css/**", "/js/**",
                                 "/api/auth/**", "/v3/api-docs/**",
@@ -0,0 +1,116 @@
+package com.saparbek.task_manager_pro.auth.config;
+
+import com.saparbek.task_manager_pro.auth.model.TokenClaims;
+import com.saparbek.task_manager_pro.auth.service.JwtService;
+import com.saparbek.task_manager_pro.modules.project.repository.BoardRepository;
+import com.saparbek.task_manager_pro.modules.user.security.CustomUserDetails;
+import com.saparbek.task_manager_pro.modules.user.service.CustomUserDetailsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// CONNECT: пользователь из JWT в заголовке Authorization. SUBSCRIBE: только на свои топики.
+// SEND: только в /app/** и только с аутентификацией — в /topic/** пишет лишь сервер
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final Pattern BOARD_TOPIC = Pattern.compile("^/topic/projects/([0-9a-fA-F-]{36})/boards/([0-9a-fA-F-]{36})$");
+    private static final Pattern NOTIFICATION_TOPIC = Pattern.compile("^/topic/notifications/([0-9a-fA-F-]{36})$");
+    private static final String APP_PREFIX = "/app/";
+
+    private final JwtService jwtService;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final BoardRepository boardRepository;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            authenticate(accessor);
+        } else if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            authorizeSubscription(accessor.getUser(), accessor.getDestination());
+        } else if (accessor.getCommand() == StompCommand.SEND) {
+            authorizeSend(accessor.getUser(), accessor.getDestination());
+        }
+        return message;
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String authHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return; // анонимное соединение: подписаться ни на что не сможет
+        }
+
+        TokenClaims claims;
+        try {
+            claims = jwtService.parseToken(authHeader.substring(7));
+        } catch (Exception e) {
+            throw new AccessDeniedException("Invalid token");
+        }
+
+        UserDetails userDetails = customUserDetailsService.loadCachedUserByUsername(claims.getSubject());
+        if (!jwtService.isTokenValid(claims, userDetails)) {
+            throw new AccessDeniedException("Invalid token");
+        }
+        accessor.setUser(new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    // Прямая отправка в брокер позволила бы подделать BoardEvent или чужое уведомление
+    private void authorizeSend(Principal principal, String destination) {
+        if (destination == null || !destination.startsWith(APP_PREFIX)) {
+            throw new AccessDeniedException("Access denied");
+        }
+        requireUser(principal);
+    }
+
+    private void authorizeSubscription(Principal principal, String destination) {
+        CustomUserDetails userDetails = requireUser(principal);
+        if (destination == null) {
+            throw new AccessDeniedException("Destination required");
+        }
+
+        Matcher board = BOARD_TOPIC.matcher(destination);
+        if (board.matches()) {
+            UUID projectId = UUID.fromString(board.group(1));
+            UUID boardId = UUID.fromString(board.group(2));
+            if (!boardRepository.isAccessibleBy(boardId, projectId, userDetails.getUsername())) {
+                throw new AccessDeniedException("Access denied");
+            }
+            return;
+        }
+
+        Matcher notifications = NOTIFICATION_TOPIC.matcher(destination);
+        if (notifications.matches()
+                && UUID.fromString(notifications.group(1)).equals(userDetails.getUser().getId())) {
+            return;
+        }
+
+        throw new AccessDeniedException("Access denied");
+    }
+
+    private static CustomUserDetails requireUser(Principal principal) {
+        if (!(principal instanceof UsernamePasswordAuthenticationToken auth)
+                || !(auth.getPrincipal() instanceof CustomUserDetails userDetails)) {
+            throw new AccessDeniedException("Authentication required");
+        }
+        return userDetails;
+    }
+}
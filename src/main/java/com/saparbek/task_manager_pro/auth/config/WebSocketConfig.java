@@ -1,13 +1,45 @@
 package com.saparbek.task_manager_pro.auth.config;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.web.socket.config.annotation.*;
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    // simple — брокер в памяти (один инстанс); relay — внешний STOMP-брокер, события видят клиенты всех инстансов
+    @Value("${messaging.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${messaging.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${messaging.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${messaging.broker.relay.client-login:guest}")
+    private String clientLogin;
+
+    @Value("${messaging.broker.relay.client-passcode:guest}")
+    private String clientPasscode;
+
+    @Value("${messaging.broker.relay.system-login:guest}")
+    private String systemLogin;
+
+    @Value("${messaging.broker.relay.system-passcode:guest}")
+    private String systemPasscode;
+
+    @Value("${messaging.broker.relay.virtual-host:}")
+    private String virtualHost;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Enable SockJS and allow connections from HTTPS origins (including Render)
@@ -20,7 +52,25 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic"); // Messages to subscribers
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            StompBrokerRelayRegistration relay = registry.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(clientLogin)
+                    .setClientPasscode(clientPasscode)
+                    .setSystemLogin(systemLogin)
+                    .setSystemPasscode(systemPasscode);
+            if (!virtualHost.isBlank()) {
+                relay.setVirtualHost(virtualHost);
+            }
+        } else {
+            registry.enableSimpleBroker("/topic"); // Messages to subscribers
+        }
         registry.setApplicationDestinationPrefixes("/app"); // Messages from client
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
 }
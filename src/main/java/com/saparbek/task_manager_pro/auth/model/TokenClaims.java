@@ -0,0 +1,17 @@
+package com.saparbek.task_manager_pro.auth.model;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+// Неизменяемое представление проверенного JWT: подпись уже проверена, claims разобраны один раз
+@Value
+public class TokenClaims {
+    String subject;
+    Instant issuedAt;
+    Instant expiration;
+
+    public boolean isExpired() {
+        return expiration != null && expiration.isBefore(Instant.now());
+    }
+}
@@ -1,39 +1,94 @@
 package com.saparbek.task_manager_pro.auth.service;
 
+import com.saparbek.task_manager_pro.auth.model.TokenClaims;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    // Ключ и парсер строятся один раз при старте, парсер потокобезопасен
+    private final Key signKey;
+    private final JwtParser parser;
+
+    // Кэш уже проверенных токенов: ключ — SHA-256 токена, запись живёт не дольше самого токена
+    private final long verifiedTtlMillis;
+    private final int verifiedMaxSize;
+    private final Map<String, CachedClaims> verified = new ConcurrentHashMap<>();
+
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.verified-cache.ttl-seconds:30}") long verifiedTtlSeconds,
+                      @Value("${jwt.verified-cache.max-size:10000}") int verifiedMaxSize) {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signKey = Keys.hmacShaKeyFor(keyBytes); // Секрет должен быть >= 256 бит!
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signKey)
+                .build();
+        this.verifiedTtlMillis = verifiedTtlSeconds * 1000;
+        this.verifiedMaxSize = verifiedMaxSize;
+    }
 
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
+    /**
+     * Проверяет подпись и разбирает токен ровно один раз.
+     * Бросает JwtException (в т.ч. ExpiredJwtException), если токен недействителен.
+     */
+    public TokenClaims parseToken(String token) {
+        long now = System.currentTimeMillis();
+        String key = hash(token);
+
+        CachedClaims cached = verified.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.claims();
+        }
+
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        TokenClaims result = new TokenClaims(
+                claims.getSubject(),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+
+        long expiresAt = now + verifiedTtlMillis;
+        if (result.getExpiration() != null) {
+            expiresAt = Math.min(expiresAt, result.getExpiration().toEpochMilli());
+        }
+        verified.put(key, new CachedClaims(result, expiresAt));
+        if (verified.size() > verifiedMaxSize) {
+            evict(now);
+        }
+        return result;
+    }
 
+    public boolean isTokenValid(TokenClaims claims, UserDetails userDetails) {
+        return claims.getSubject() != null
+                && claims.getSubject().equals(userDetails.getUsername())
+                && !claims.isExpired();
+    }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).getSubject();
     }
 
     public <T> T extractClaim(String token, Function<io.jsonwebtoken.Claims, T> claimsResolver) {
-        var claims = Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parser.parseClaimsJws(token).getBody());
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -41,7 +96,7 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + 86400000)) // 1 день
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -52,7 +107,7 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 86400000)) // 1 день
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -61,23 +116,41 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000L * 60 * 60 * 24 * 7)) // 7 дней
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(parseToken(token), userDetails);
     }
 
+    // Без кэша: используется очисткой токенов и не должен вытеснять горячие записи
     public boolean isTokenExpired(String token) {
-        return extractClaim(token, claims -> claims.getExpiration()).before(new Date());
+        return extractClaim(token, Claims::getExpiration).before(new Date());
+    }
+
+    private void evict(long now) {
+        verified.values().removeIf(c -> c.expiresAt() <= now);
+
+        Iterator<String> it = verified.keySet().iterator();
+        while (verified.size() > verifiedMaxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
     }
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes); // Секрет должен быть >= 256 бит!
+    private record CachedClaims(TokenClaims claims, long expiresAt) {
     }
 
 }
@@ -1,11 +1,17 @@
 package com.saparbek.task_manager_pro.modules.activity.controller;
 
-import com.saparbek.task_manager_pro.modules.activity.model.ActivityLog;
+import com.saparbek.task_manager_pro.modules.activity.dto.ActivityDailyCountResponse;
+import com.saparbek.task_manager_pro.modules.activity.dto.ActivityPageResponse;
+import com.saparbek.task_manager_pro.modules.activity.model.ActivityEvent;
 import com.saparbek.task_manager_pro.modules.activity.service.ActivityLogService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,8 +22,41 @@ public class ActivityLogController {
 
     private final ActivityLogService activityLogService;
 
+    // ✅ Журнал проекта постранично: ?cursor=<nextCursor из прошлого ответа>&limit=50&event=TASK_MOVED&user=...
     @GetMapping
-    public ResponseEntity<List<ActivityLog>> getProjectActivity(@PathVariable UUID projectId) {
-        return ResponseEntity.ok(activityLogService.getProjectHistory(projectId));
+    public ResponseEntity<ActivityPageResponse> getProjectActivity(
+            @PathVariable UUID projectId,
+            @RequestParam(required = false) ActivityEvent event,
+            @RequestParam(required = false) String user,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(activityLogService.getProjectHistory(projectId, event, user, cursor, limit));
+    }
+
+    // 📊 Активность по дням (из дневных итогов), по умолчанию за последние 30 дней
+    @GetMapping("/daily")
+    public ResponseEntity<List<ActivityDailyCountResponse>> getDailyActivity(
+            @PathVariable UUID projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+        return ResponseEntity.ok(activityLogService.getDailyActivity(projectId, start, end));
+    }
+
+    // 📤 Полная выгрузка журнала в NDJSON (одна запись — одна строка), отдаётся потоком
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportProjectActivity(
+            @PathVariable UUID projectId,
+            @RequestParam(required = false) ActivityEvent event,
+            @RequestParam(required = false) String user
+    ) {
+        StreamingResponseBody body = out -> activityLogService.exportProjectHistory(projectId, event, user, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("Content-Disposition", "attachment; filename=\"activity-" + projectId + ".ndjson\"")
+                .body(body);
     }
 }
@@ -0,0 +1,20 @@
+package com.saparbek.task_manager_pro.modules.activity.dto;
+
+import com.saparbek.task_manager_pro.modules.activity.model.ActivityDailyRollup;
+import com.saparbek.task_manager_pro.modules.activity.model.ActivityEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@AllArgsConstructor
+public class ActivityDailyCountResponse {
+    private LocalDate date;
+    private ActivityEvent event;
+    private long count;
+
+    public static ActivityDailyCountResponse from(ActivityDailyRollup rollup) {
+        return new ActivityDailyCountResponse(rollup.getRollupDate(), rollup.getEvent(), rollup.getEventCount());
+    }
+}
@@ -0,0 +1,35 @@
+package com.saparbek.task_manager_pro.modules.activity.dto;
+
+import com.saparbek.task_manager_pro.modules.activity.model.ActivityEvent;
+import com.saparbek.task_manager_pro.modules.activity.model.ActivityLog;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityLogResponse {
+    private UUID id;
+    private ActivityEvent event;
+    private String user;
+    private String targetUser;
+    private UUID taskId;
+    private UUID projectId;
+    private LocalDateTime timestamp;
+
+    public static ActivityLogResponse from(ActivityLog log) {
+        return ActivityLogResponse.builder()
+                .id(log.getId())
+                .event(log.getEvent())
+                .user(log.getUser())
+                .targetUser(log.getTargetUser())
+                .taskId(log.getTaskId())
+                .projectId(log.getProjectId())
+                .timestamp(log.getTimestamp())
+                .build();
+    }
+}
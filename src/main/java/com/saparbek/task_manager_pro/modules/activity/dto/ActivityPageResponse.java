@@ -0,0 +1,14 @@
+package com.saparbek.task_manager_pro.modules.activity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Страница журнала; nextCursor == null — дальше записей нет
+@Getter
+@AllArgsConstructor
+public class ActivityPageResponse {
+    private List<ActivityLogResponse> items;
+    private String nextCursor;
+}
@@ -0,0 +1,35 @@
+package com.saparbek.task_manager_pro.modules.activity.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Число событий за день по проекту и типу; пересчитывается ActivityStorageMaintenanceService
+@Entity
+@Table(name = "activity_daily_rollups")
+@IdClass(ActivityDailyRollupId.class)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityDailyRollup {
+
+    @Id
+    @Column(nullable = false)
+    private UUID projectId;
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate rollupDate;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ActivityEvent event;
+
+    @Column(nullable = false)
+    private long eventCount;
+}
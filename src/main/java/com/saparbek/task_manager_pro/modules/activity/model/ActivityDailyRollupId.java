@@ -0,0 +1,18 @@
+package com.saparbek.task_manager_pro.modules.activity.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ActivityDailyRollupId implements Serializable {
+    private UUID projectId;
+    private LocalDate rollupDate;
+    private ActivityEvent event;
+}
@@ -7,7 +7,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "activity_logs")
+@Table(
+        name = "activity_logs",
+        // Под keyset-пагинацию журнала проекта: WHERE project_id = ? ORDER BY timestamp DESC, id DESC
+        indexes = @Index(name = "idx_activity_project_ts_id", columnList = "project_id, timestamp DESC, id DESC")
+)
 @Getter
 @Setter
 @Builder
@@ -29,6 +33,7 @@ public class ActivityLog {
 
     private UUID taskId;
 
+    @Column(nullable = false) // ключ партиционирования (см. V3__partition_activity_logs.sql)
     private LocalDateTime timestamp;
 
     @Column(nullable = false)
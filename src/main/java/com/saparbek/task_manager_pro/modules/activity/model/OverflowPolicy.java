@@ -0,0 +1,8 @@
+package com.saparbek.task_manager_pro.modules.activity.model;
+
+// Что делать, если буфер журнала заполнен
+public enum OverflowPolicy {
+    CALLER_RUNS, // записать синхронно в потоке запроса (по умолчанию, ничего не теряем)
+    BLOCK,       // подождать block-timeout-ms, затем записать синхронно
+    DROP         // отбросить событие
+}
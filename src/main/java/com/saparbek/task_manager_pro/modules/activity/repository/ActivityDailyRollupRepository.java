@@ -0,0 +1,13 @@
+package com.saparbek.task_manager_pro.modules.activity.repository;
+
+import com.saparbek.task_manager_pro.modules.activity.model.ActivityDailyRollup;
+import com.saparbek.task_manager_pro.modules.activity.model.ActivityDailyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface ActivityDailyRollupRepository extends JpaRepository<ActivityDailyRollup, ActivityDailyRollupId> {
+    List<ActivityDailyRollup> findAllByProjectIdAndRollupDateBetweenOrderByRollupDate(UUID projectId, LocalDate from, LocalDate to);
+}
@@ -2,10 +2,9 @@ package com.saparbek.task_manager_pro.modules.activity.repository;
 
 import com.saparbek.task_manager_pro.modules.activity.model.ActivityLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-import java.util.List;
 import java.util.UUID;
 
-public interface ActivityLogRepository extends JpaRepository<ActivityLog, UUID> {
-    List<ActivityLog> findAllByProjectIdOrderByTimestampDesc(UUID projectId);
+public interface ActivityLogRepository extends JpaRepository<ActivityLog, UUID>, JpaSpecificationExecutor<ActivityLog> {
 }
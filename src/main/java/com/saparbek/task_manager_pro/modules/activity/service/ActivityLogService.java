@@ -1,12 +1,37 @@
 package com.saparbek.task_manager_pro.modules.activity.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saparbek.task_manager_pro.modules.activity.dto.ActivityDailyCountResponse;
+import com.saparbek.task_manager_pro.modules.activity.dto.ActivityLogResponse;
+import com.saparbek.task_manager_pro.modules.activity.dto.ActivityPageResponse;
 import com.saparbek.task_manager_pro.modules.activity.model.ActivityEvent;
 import com.saparbek.task_manager_pro.modules.activity.model.ActivityLog;
+import com.saparbek.task_manager_pro.modules.activity.repository.ActivityDailyRollupRepository;
 import com.saparbek.task_manager_pro.modules.activity.repository.ActivityLogRepository;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,10 +39,52 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ActivityLogService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private final ActivityLogRepository repository;
+    private final ActivityDailyRollupRepository rollupRepository;
+    private final ActivityLogWriter activityLogWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
 
+    // Запись уходит в write-behind буфер; внутри транзакции — только после её коммита
     public void logEvent(ActivityEvent event, String user, String targetUser, UUID taskId, UUID projectId) {
-        ActivityLog log = ActivityLog.builder()
+        ActivityLog log = entry(event, user, targetUser, taskId, projectId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    activityLogWriter.submit(log);
+                }
+            });
+        } else {
+            activityLogWriter.submit(log);
+        }
+    }
+
+    // Все события пакетной операции одной передачей в буфер (и одним INSERT, если буфер полон)
+    public void logEvents(List<ActivityLog> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    activityLogWriter.submitAll(entries);
+                }
+            });
+        } else {
+            activityLogWriter.submitAll(entries);
+        }
+    }
+
+    public static ActivityLog entry(ActivityEvent event, String user, String targetUser, UUID taskId, UUID projectId) {
+        return ActivityLog.builder()
+                .id(UUID.randomUUID())
                 .event(event)
                 .user(user)
                 .targetUser(targetUser)
@@ -25,10 +92,138 @@ public class ActivityLogService {
                 .timestamp(LocalDateTime.now())
                 .projectId(projectId)
                 .build();
-        repository.save(log);
     }
 
-    public List<ActivityLog> getProjectHistory(UUID projectId) {
-        return repository.findAllByProjectIdOrderByTimestampDesc(projectId);
+    // Keyset-пагинация по (timestamp, id): без OFFSET, стоимость страницы не растёт с глубиной
+    public ActivityPageResponse getProjectHistory(UUID projectId, ActivityEvent event, String user,
+                                                  String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        Specification<ActivityLog> spec = Specification.where(
+                (root, query, cb) -> cb.equal(root.get("projectId"), projectId)
+        );
+
+        if (event != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("event"), event));
+        }
+
+        if (user != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("user"), user));
+        }
+
+        if (cursor != null) {
+            ActivityLog after = decodeCursor(cursor);
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("timestamp"), after.getTimestamp()),
+                    cb.and(
+                            cb.equal(root.get("timestamp"), after.getTimestamp()),
+                            cb.lessThan(root.get("id"), after.getId())
+                    )
+            ));
+        }
+
+        // Берём на одну запись больше, чтобы понять, есть ли следующая страница
+        List<ActivityLog> rows = repository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("id")))
+                .limit(pageSize + 1)
+                .all());
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = encodeCursor(rows.get(pageSize - 1));
+        }
+
+        return new ActivityPageResponse(
+                rows.stream().map(ActivityLogResponse::from).toList(),
+                nextCursor
+        );
+    }
+
+    // Для графиков активности: дневные итоги вместо сканирования сырых событий
+    public List<ActivityDailyCountResponse> getDailyActivity(UUID projectId, LocalDate from, LocalDate to) {
+        return rollupRepository.findAllByProjectIdAndRollupDateBetweenOrderByRollupDate(projectId, from, to)
+                .stream()
+                .map(ActivityDailyCountResponse::from)
+                .toList();
+    }
+
+    // NDJSON-выгрузка: строки пишутся по мере чтения из JDBC-курсора, в памяти ничего не копится.
+    // Транзакция обязательна — без неё драйвер PostgreSQL игнорирует fetchSize и читает всё сразу
+    @Transactional
+    public void exportProjectHistory(UUID projectId, ActivityEvent event, String user, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, event, username, target_user, task_id, project_id, timestamp
+                FROM activity_logs
+                WHERE project_id = ?
+                """);
+        List<Object> params = new ArrayList<>();
+        params.add(projectId);
+
+        if (event != null) {
+            sql.append(" AND event = ?");
+            params.add(event.name());
+        }
+
+        if (user != null) {
+            sql.append(" AND username = ?");
+            params.add(user);
+        }
+
+        sql.append(" ORDER BY timestamp DESC, id DESC");
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY
+                );
+                statement.setFetchSize(EXPORT_FETCH_SIZE);
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    generator.writeObject(mapRow(rs));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private ActivityLogResponse mapRow(ResultSet rs) throws SQLException {
+        String event = rs.getString("event");
+        return ActivityLogResponse.builder()
+                .id(rs.getObject("id", UUID.class))
+                .event(event == null ? null : ActivityEvent.valueOf(event))
+                .user(rs.getString("username"))
+                .targetUser(rs.getString("target_user"))
+                .taskId(rs.getObject("task_id", UUID.class))
+                .projectId(rs.getObject("project_id", UUID.class))
+                .timestamp(rs.getObject("timestamp", LocalDateTime.class))
+                .build();
+    }
+
+    // Курсор — последняя запись страницы: "timestamp|id" в base64url
+    private String encodeCursor(ActivityLog last) {
+        String raw = last.getTimestamp() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ActivityLog decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return ActivityLog.builder()
+                    .timestamp(LocalDateTime.parse(raw.substring(0, separator)))
+                    .id(UUID.fromString(raw.substring(separator + 1)))
+                    .build();
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный курсор");
+        }
     }
 }
@@ -0,0 +1,235 @@
+package com.saparbek.task_manager_pro.modules.activity.service;
+
+import com.saparbek.task_manager_pro.modules.activity.model.ActivityLog;
+import com.saparbek.task_manager_pro.modules.activity.model.OverflowPolicy;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Write-behind для журнала активности: события копятся в ограниченном буфере,
+// фоновый поток пишет их пачками через JDBC batch
+@Slf4j
+@Component
+public class ActivityLogWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO activity_logs (id, event, username, target_user, task_id, timestamp, project_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<ActivityLog> buffer;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long blockTimeoutMs;
+    private final OverflowPolicy overflowPolicy;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final Thread worker;
+
+    // Приём событий под read-lock, остановка под write-lock: после остановки в буфер ничего не попадёт
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+    private volatile boolean running = true;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public ActivityLogWriter(JdbcTemplate jdbcTemplate,
+                             @Value("${activity.write-behind.capacity:10000}") int capacity,
+                             @Value("${activity.write-behind.batch-size:500}") int batchSize,
+                             @Value("${activity.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+                             @Value("${activity.write-behind.block-timeout-ms:50}") long blockTimeoutMs,
+                             @Value("${activity.write-behind.overflow:CALLER_RUNS}") OverflowPolicy overflowPolicy,
+                             @Value("${activity.write-behind.max-attempts:3}") int maxAttempts,
+                             @Value("${activity.write-behind.retry-backoff-ms:100}") long retryBackoffMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.blockTimeoutMs = blockTimeoutMs;
+        this.overflowPolicy = overflowPolicy;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffMs = retryBackoffMs;
+
+        this.worker = new Thread(this::drainLoop, "activity-log-writer");
+        this.worker.start();
+    }
+
+    public void submit(ActivityLog entry) {
+        lifecycleLock.readLock().lock();
+        try {
+            if (running && offer(entry)) {
+                return;
+            }
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+
+        if (!running || overflowPolicy != OverflowPolicy.DROP) {
+            insert(List.of(entry));
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // Пачка событий одной операции: что не влезло в буфер, пишем одним batch-запросом
+    public void submitAll(List<ActivityLog> entries) {
+        List<ActivityLog> rejected = new ArrayList<>();
+        lifecycleLock.readLock().lock();
+        try {
+            for (ActivityLog entry : entries) {
+                if (!running || !offer(entry)) {
+                    rejected.add(entry);
+                }
+            }
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+
+        if (rejected.isEmpty()) {
+            return;
+        }
+        if (!running || overflowPolicy != OverflowPolicy.DROP) {
+            insert(rejected);
+        } else {
+            dropped.addAndGet(rejected.size());
+        }
+    }
+
+    private boolean offer(ActivityLog entry) {
+        if (overflowPolicy != OverflowPolicy.BLOCK) {
+            return buffer.offer(entry);
+        }
+        try {
+            return buffer.offer(entry, blockTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Пишем, когда набралась пачка или прошло flush-interval-ms с первого события в ней
+    private void drainLoop() {
+        List<ActivityLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ActivityLog first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                long deadline = System.currentTimeMillis() + flushIntervalMs;
+                while (batch.size() < batchSize) {
+                    if (buffer.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long wait = deadline - System.currentTimeMillis();
+                    ActivityLog next = wait > 0 ? buffer.poll(wait, TimeUnit.MILLISECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // недописанное добьёт flushOnShutdown; что не влезло обратно в буфер, пишем сразу
+                Thread.currentThread().interrupt();
+                List<ActivityLog> overflow = new ArrayList<>();
+                for (ActivityLog entry : batch) {
+                    if (!buffer.offer(entry)) {
+                        overflow.add(entry);
+                    }
+                }
+                if (!overflow.isEmpty()) {
+                    insert(overflow);
+                }
+                return;
+            }
+
+            insert(batch);
+            batch.clear();
+        }
+    }
+
+    // Кратковременный сбой БД переживаем повторами с растущей паузой; отбрасываем только после max-attempts
+    private void insert(List<ActivityLog> entries) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, entries, batchSize, (ps, entry) -> {
+                    ps.setObject(1, entry.getId());
+                    ps.setString(2, entry.getEvent() == null ? null : entry.getEvent().name());
+                    ps.setString(3, entry.getUser());
+                    ps.setString(4, entry.getTargetUser());
+                    ps.setObject(5, entry.getTaskId());
+                    ps.setTimestamp(6, Timestamp.valueOf(entry.getTimestamp()));
+                    ps.setObject(7, entry.getProjectId());
+                });
+                written.addAndGet(entries.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !backoff(attempt)) {
+                    dropped.addAndGet(entries.size());
+                    log.error("Не удалось записать {} событий журнала активности за {} попыток",
+                            entries.size(), attempt, e);
+                    return;
+                }
+                log.warn("Не удалось записать {} событий журнала активности, попытка {} из {}",
+                        entries.size(), attempt, maxAttempts);
+            }
+        }
+    }
+
+    // 100мс, 200мс, 400мс, ...; прерванный поток больше не ждёт
+    private boolean backoff(int attempt) {
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        try {
+            Thread.sleep(retryBackoffMs << (attempt - 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    // Бин уничтожается раньше JdbcTemplate/DataSource — успеваем дописать всё из буфера
+    @PreDestroy
+    public void flushOnShutdown() throws InterruptedException {
+        lifecycleLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+
+        // Поток сам выйдет после текущего poll/insert; не прерываем его посреди JDBC-вызова
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+
+        List<ActivityLog> rest = new ArrayList<>();
+        buffer.drainTo(rest);
+        for (int from = 0; from < rest.size(); from += batchSize) {
+            insert(rest.subList(from, Math.min(rest.size(), from + batchSize)));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.saparbek.task_manager_pro.modules.activity.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Обслуживание хранилища журнала (PostgreSQL, см. V3/V4 миграции):
+// партиции наперёд, удаление старых партиций целиком и дневные итоги.
+// Flyway в проекте не подключён: если V3 не применена вручную, таблица обычная и старое чистим DELETE пачками
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ActivityStorageMaintenanceService {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("activity_logs_y(\\d{4})m(\\d{2})");
+
+    private static final String UPSERT_ROLLUPS_SQL = """
+            INSERT INTO activity_daily_rollups (project_id, rollup_date, event, event_count)
+            SELECT project_id, CAST(timestamp AS DATE), event, COUNT(*)
+            FROM activity_logs
+            WHERE timestamp >= ? AND timestamp < ?
+              AND event IS NOT NULL
+            GROUP BY project_id, CAST(timestamp AS DATE), event
+            ON CONFLICT (project_id, rollup_date, event) DO UPDATE SET event_count = EXCLUDED.event_count
+            """;
+
+    private static final String DELETE_EXPIRED_SQL = """
+            DELETE FROM activity_logs
+            WHERE id IN (SELECT id FROM activity_logs WHERE timestamp < ? LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${activity.retention.months:12}")
+    private int retentionMonths;
+
+    @Value("${activity.partitions.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${activity.retention.delete-batch-size:5000}")
+    private int deleteBatchSize;
+
+    private volatile Boolean postgres;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkPartitioningAtStartup() {
+        if (!isPartitioned()) {
+            log.warn("⚠️ activity_logs не партиционирована (V3 не применена): срок хранения журнала обеспечивается DELETE пачками");
+        }
+    }
+
+    @Scheduled(cron = "${activity.partitions.cron:0 10 0 * * *}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        if (!isPartitioned()) {
+            deleteExpired(current.minusMonths(retentionMonths));
+            return;
+        }
+
+        for (int i = 0; i <= premakeMonths; i++) {
+            createPartition(current.plusMonths(i));
+        }
+
+        // Храним текущий месяц и retention-months предыдущих; всё старше — DROP партиции вместо DELETE строк
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        for (String partition : listPartitions()) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue; // activity_logs_default и прочие не трогаем
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(oldestKept)) {
+                jdbcTemplate.execute("ALTER TABLE activity_logs DETACH PARTITION " + partition);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Удалена партиция журнала {}", partition);
+            }
+        }
+    }
+
+    // Вчера и сегодня пересчитываем каждый час: поздние события тоже попадут в итоги
+    @Scheduled(cron = "${activity.rollup.cron:0 5 * * * *}")
+    public void refreshRollups() {
+        LocalDate today = LocalDate.now();
+        rollup(today.minusDays(1), today.plusDays(1));
+    }
+
+    public int rollup(LocalDate from, LocalDate toExclusive) {
+        if (!isPostgres()) {
+            return 0;
+        }
+        return jdbcTemplate.update(UPSERT_ROLLUPS_SQL, Date.valueOf(from), Date.valueOf(toExclusive));
+    }
+
+    // Каждая пачка — отдельный короткий DELETE: блокировки не копятся на всю таблицу
+    int deleteExpired(YearMonth oldestKept) {
+        Timestamp cutoff = Timestamp.valueOf(oldestKept.atDay(1).atStartOfDay());
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(DELETE_EXPIRED_SQL, cutoff, deleteBatchSize);
+            total += deleted;
+        } while (deleted >= deleteBatchSize);
+        if (total > 0) {
+            log.info("Удалено записей журнала старше {}: {}", oldestKept, total);
+        }
+        return total;
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = "activity_logs_y%04dm%02d".formatted(month.getYear(), month.getMonthValue());
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS %s PARTITION OF activity_logs
+                FOR VALUES FROM ('%s') TO ('%s')
+                """.formatted(name, month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT child.relname
+                FROM pg_inherits i
+                JOIN pg_class child ON child.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass('activity_logs')
+                """, String.class);
+    }
+
+    private boolean isPartitioned() {
+        if (!isPostgres()) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT relkind = 'p' FROM pg_class WHERE oid = to_regclass('activity_logs')",
+                    Boolean.class
+            ));
+        } catch (DataAccessException e) {
+            return false; // таблицы ещё нет
+        }
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = "PostgreSQL".equals(jdbcTemplate.execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+            ));
+        }
+        return postgres;
+    }
+}
@@ -1,13 +1,11 @@
 package com.saparbek.task_manager_pro.modules.notification.controller;
 
-import com.saparbek.task_manager_pro.modules.notification.dto.NotificationResponse;
+import com.saparbek.task_manager_pro.modules.notification.dto.NotificationPageResponse;
 import com.saparbek.task_manager_pro.modules.notification.service.NotificationService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -17,12 +15,6 @@ public class NotificationController {
 
     private final NotificationService notificationService;
 
-    @MessageMapping("/notify")        // клиент отправляет на /app/notify
-    @SendTo("/topic/notifications")   // все подписчики получают
-    public String sendNotification(String message) {
-        return "🔔 Уведомление: " + message;
-    }
-
     @PutMapping("/{notificationId}/read")
     public void markAsRead(@PathVariable UUID notificationId) {
         notificationService.markAsRead(notificationId);
@@ -33,8 +25,16 @@ public class NotificationController {
         notificationService.markAllRead(userId);
     }
 
+    // ?cursor=<nextCursor из прошлого ответа>&limit=20
     @GetMapping("/{userId}")
-    public List<NotificationResponse> getUserNotifications(@PathVariable UUID userId) {
-        return notificationService.getUserNotifications(userId);
+    public NotificationPageResponse getUserNotifications(@PathVariable UUID userId,
+                                                         @RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer limit) {
+        return notificationService.getUserNotifications(userId, cursor, limit);
+    }
+
+    @GetMapping("/{userId}/unread-count")
+    public Map<String, Long> getUnreadCount(@PathVariable UUID userId) {
+        return Map.of("count", notificationService.getUnreadCount(userId));
     }
 }
\ No newline at end of file
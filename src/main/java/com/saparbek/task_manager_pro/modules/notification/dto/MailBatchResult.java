@@ -0,0 +1,15 @@
+package com.saparbek.task_manager_pro.modules.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class MailBatchResult {
+    private List<UUID> sent;
+    private Map<UUID, String> failed; // id письма -> причина ошибки
+}
@@ -0,0 +1,15 @@
+package com.saparbek.task_manager_pro.modules.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+// Строка задачи в письме-дайджесте
+@Getter
+@AllArgsConstructor
+public class MailTaskLine {
+    private String title;
+    private LocalDate deadline;
+    private String projectName;
+}
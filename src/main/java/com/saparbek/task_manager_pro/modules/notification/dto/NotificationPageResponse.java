@@ -0,0 +1,14 @@
+package com.saparbek.task_manager_pro.modules.notification.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Страница уведомлений; nextCursor == null — дальше ничего нет
+@Getter
+@AllArgsConstructor
+public class NotificationPageResponse {
+    private List<NotificationResponse> items;
+    private String nextCursor;
+}
@@ -1,5 +1,6 @@
 package com.saparbek.task_manager_pro.modules.notification.dto;
 
+import com.saparbek.task_manager_pro.modules.notification.model.Notification;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,4 +16,14 @@ public class NotificationResponse {
     private String content;
     private String timestamp;
     private boolean read;
+
+    public static NotificationResponse from(Notification notification) {
+        return new NotificationResponse(
+                notification.getId(),
+                notification.getTitle(),
+                notification.getContent(),
+                notification.getTimestamp() != null ? notification.getTimestamp().toString() : "N/A",
+                notification.isRead()
+        );
+    }
 }
@@ -0,0 +1,9 @@
+package com.saparbek.task_manager_pro.modules.notification.dto;
+
+import java.util.UUID;
+
+// Пара (задача, получатель), которой напоминание ещё не отправлялось
+public interface PendingReminder {
+    UUID getTaskId();
+    UUID getRecipientId();
+}
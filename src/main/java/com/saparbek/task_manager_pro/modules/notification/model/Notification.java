@@ -11,6 +11,11 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@Table(
+        name = "notification",
+        // Счётчик непрочитанных и лента колокольчика: WHERE recipient_id = ? [AND read = false] ORDER BY timestamp DESC
+        indexes = @Index(name = "idx_notification_recipient_read_ts", columnList = "recipient_id, read, timestamp")
+)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,51 @@
+package com.saparbek.task_manager_pro.modules.notification.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Исходящее письмо: пишется в той же транзакции, что и бизнес-изменения, отправляется фоново
+@Entity
+@Table(
+        name = "mail_outbox",
+        indexes = @Index(name = "idx_mail_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+}
@@ -0,0 +1,8 @@
+package com.saparbek.task_manager_pro.modules.notification.model;
+
+public enum OutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
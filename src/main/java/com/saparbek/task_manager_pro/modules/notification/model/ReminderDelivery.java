@@ -0,0 +1,44 @@
+package com.saparbek.task_manager_pro.modules.notification.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Журнал доставленных напоминаний: одно напоминание на (задачу, получателя, тип, дату)
+@Entity
+@Table(
+        name = "reminder_deliveries",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_reminder_delivery",
+                columnNames = {"task_id", "recipient_id", "kind", "reminder_date"}
+        )
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderDelivery {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    @Column(name = "recipient_id", nullable = false)
+    private UUID recipientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReminderKind kind;
+
+    @Column(name = "reminder_date", nullable = false)
+    private LocalDate reminderDate;
+
+    private LocalDateTime deliveredAt;
+}
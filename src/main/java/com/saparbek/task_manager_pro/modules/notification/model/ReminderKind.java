@@ -0,0 +1,5 @@
+package com.saparbek.task_manager_pro.modules.notification.model;
+
+public enum ReminderKind {
+    DEADLINE_TODAY
+}
@@ -1,13 +1,40 @@
 package com.saparbek.task_manager_pro.modules.notification.repository;
 
 import com.saparbek.task_manager_pro.modules.notification.model.Notification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 public interface NotificationRepository extends JpaRepository<Notification, UUID> {
-    List<Notification> findByRecipientIdOrderByTimestampDesc(UUID userId);
-    List<Notification> findByRecipientIdAndReadFalse(UUID userId);
-}
 
+    List<Notification> findByRecipientIdOrderByTimestampDescIdDesc(UUID userId, Limit limit);
+
+    // Следующая страница после (timestamp, id) последнего уведомления предыдущей
+    @Query("""
+    SELECT n
+    FROM Notification n
+    WHERE n.recipient.id = :userId
+      AND (n.timestamp < :timestamp OR (n.timestamp = :timestamp AND n.id < :id))
+    ORDER BY n.timestamp DESC, n.id DESC
+""")
+    List<Notification> findPageAfter(@Param("userId") UUID userId,
+                                     @Param("timestamp") LocalDateTime timestamp,
+                                     @Param("id") UUID id,
+                                     Limit limit);
+
+    long countByRecipientIdAndReadFalse(UUID userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.id = :id AND n.read = false")
+    int markRead(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.read = true WHERE n.recipient.id = :userId AND n.read = false")
+    int markAllRead(@Param("userId") UUID userId);
+}
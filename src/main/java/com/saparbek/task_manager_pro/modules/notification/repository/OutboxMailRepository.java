@@ -0,0 +1,38 @@
+package com.saparbek.task_manager_pro.modules.notification.repository;
+
+import com.saparbek.task_manager_pro.modules.notification.model.OutboxMail;
+import com.saparbek.task_manager_pro.modules.notification.model.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, UUID> {
+
+    // SKIP LOCKED: несколько экземпляров приложения не заберут одно и то же письмо
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+    SELECT m
+    FROM OutboxMail m
+    WHERE m.status IN :statuses
+      AND m.nextAttemptAt <= :now
+    ORDER BY m.nextAttemptAt
+""")
+    List<OutboxMail> findDueForUpdate(
+            @Param("statuses") Collection<OutboxStatus> statuses,
+            @Param("now") LocalDateTime now,
+            Pageable pageable
+    );
+
+    @Modifying
+    @Query("DELETE FROM OutboxMail m WHERE m.status = :status AND m.sentAt < :before")
+    int deleteAllByStatusAndSentAtBefore(@Param("status") OutboxStatus status,
+                                         @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,41 @@
+package com.saparbek.task_manager_pro.modules.notification.repository;
+
+import com.saparbek.task_manager_pro.modules.notification.dto.PendingReminder;
+import com.saparbek.task_manager_pro.modules.notification.model.ReminderDelivery;
+import com.saparbek.task_manager_pro.modules.notification.model.ReminderKind;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface ReminderDeliveryRepository extends JpaRepository<ReminderDelivery, UUID> {
+
+    @Query("""
+    SELECT t.id AS taskId, a.id AS recipientId
+    FROM Task t
+    JOIN t.assignees a
+    WHERE t.deadline = :date
+      AND t.status <> :done
+      AND NOT EXISTS (
+          SELECT 1 FROM ReminderDelivery r
+          WHERE r.taskId = t.id
+            AND r.recipientId = a.id
+            AND r.kind = :kind
+            AND r.reminderDate = :date
+      )
+""")
+    List<PendingReminder> findPendingDeadlineReminders(
+            @Param("date") LocalDate date,
+            @Param("done") TaskStatus done,
+            @Param("kind") ReminderKind kind
+    );
+
+    @Modifying
+    @Query("DELETE FROM ReminderDelivery r WHERE r.reminderDate < :date")
+    int deleteAllByReminderDateBefore(@Param("date") LocalDate date);
+}
@@ -0,0 +1,67 @@
+package com.saparbek.task_manager_pro.modules.notification.service;
+
+import com.saparbek.task_manager_pro.modules.notification.dto.MailBatchResult;
+import com.saparbek.task_manager_pro.modules.notification.model.OutboxMail;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+@Component
+@RequiredArgsConstructor
+public class MailBatchSender {
+
+    private final JavaMailSender mailSender;
+
+    // Вся пачка уходит через одно SMTP-соединение (JavaMailSender.send(MimeMessage...))
+    public MailBatchResult send(List<OutboxMail> mails) {
+        // MimeMessage не переопределяет equals, LinkedHashMap сохраняет порядок отправки
+        Map<MimeMessage, UUID> ids = new LinkedHashMap<>();
+        Map<UUID, String> failed = new HashMap<>();
+
+        for (OutboxMail mail : mails) {
+            try {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, "utf-8");
+
+                helper.setTo(mail.getRecipient());
+                helper.setSubject(mail.getSubject());
+                helper.setText(mail.getBody(), true); // true = HTML
+
+                ids.put(message, mail.getId());
+            } catch (MessagingException e) {
+                failed.put(mail.getId(), e.getMessage());
+            }
+        }
+
+        if (!ids.isEmpty()) {
+            try {
+                mailSender.send(ids.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    UUID id = ids.get(message);
+                    if (id != null) {
+                        failed.put(id, String.valueOf(cause.getMessage()));
+                    }
+                });
+                if (e.getFailedMessages().isEmpty()) {
+                    ids.values().forEach(id -> failed.putIfAbsent(id, e.getMessage()));
+                }
+            } catch (MailException e) {
+                ids.values().forEach(id -> failed.putIfAbsent(id, e.getMessage()));
+            }
+        }
+
+        List<UUID> sent = mails.stream()
+                .map(OutboxMail::getId)
+                .filter(id -> !failed.containsKey(id))
+                .toList();
+        return new MailBatchResult(sent, failed);
+    }
+}
@@ -0,0 +1,97 @@
+package com.saparbek.task_manager_pro.modules.notification.service;
+
+import com.saparbek.task_manager_pro.modules.notification.model.OutboxMail;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.*;
+
+// Фоновая отправка писем из mail_outbox ограниченным пулом воркеров
+@Slf4j
+@Component
+public class MailOutboxDispatcher {
+
+    private final MailOutboxService outboxService;
+    private final MailBatchSender batchSender;
+    private final ExecutorService workers;
+
+    private final int chunkSize;
+    private final int retentionDays;
+    // Слоты на пачки в работе: берём до claimDue, отдаём после отправки
+    private final Semaphore chunkSlots;
+
+    public MailOutboxDispatcher(MailOutboxService outboxService,
+                                MailBatchSender batchSender,
+                                @Value("${mail.outbox.workers:4}") int workerCount,
+                                @Value("${mail.outbox.chunk-size:50}") int chunkSize,
+                                @Value("${mail.outbox.retention-days:7}") int retentionDays) {
+        this.outboxService = outboxService;
+        this.batchSender = batchSender;
+        this.chunkSize = chunkSize;
+        this.retentionDays = retentionDays;
+        // Не больше двух пачек на воркера: длину очереди ограничивает семафор, а не пул
+        this.chunkSlots = new Semaphore(workerCount * 2);
+        this.workers = new ThreadPoolExecutor(
+                workerCount, workerCount,
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("mail-worker-")
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        int slots = chunkSlots.drainPermits();
+        if (slots == 0) {
+            return;
+        }
+
+        List<OutboxMail> due;
+        try {
+            due = outboxService.claimDue(slots * chunkSize);
+        } catch (RuntimeException e) {
+            chunkSlots.release(slots);
+            throw e;
+        }
+        int chunks = (due.size() + chunkSize - 1) / chunkSize;
+        chunkSlots.release(slots - chunks);
+
+        for (int from = 0; from < due.size(); from += chunkSize) {
+            List<OutboxMail> chunk = due.subList(from, Math.min(due.size(), from + chunkSize));
+            try {
+                workers.execute(() -> {
+                    try {
+                        outboxService.complete(batchSender.send(chunk));
+                    } finally {
+                        chunkSlots.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Пул уже остановлен: возвращаем слоты и аренду неотправленных писем
+                List<OutboxMail> unsent = due.subList(from, due.size());
+                chunkSlots.release(chunks - from / chunkSize);
+                outboxService.release(unsent.stream().map(OutboxMail::getId).toList());
+                log.warn("Пул отправки писем отклонил пачку, {} писем возвращено в outbox", unsent.size());
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeSent() {
+        outboxService.purgeSent(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    // Даём воркерам дослать текущие пачки; недоотправленное вернётся из outbox после рестарта
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
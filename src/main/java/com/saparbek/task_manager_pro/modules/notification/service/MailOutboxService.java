@@ -0,0 +1,107 @@
+package com.saparbek.task_manager_pro.modules.notification.service;
+
+import com.saparbek.task_manager_pro.modules.notification.dto.MailBatchResult;
+import com.saparbek.task_manager_pro.modules.notification.model.OutboxMail;
+import com.saparbek.task_manager_pro.modules.notification.model.OutboxStatus;
+import com.saparbek.task_manager_pro.modules.notification.repository.OutboxMailRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class MailOutboxService {
+
+    private final OutboxMailRepository outboxMailRepository;
+
+    @Value("${mail.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.retry-backoff-seconds:30}")
+    private long retryBackoffSeconds;
+
+    @Value("${mail.outbox.lease-seconds:300}")
+    private long leaseSeconds;
+
+    // Выполняется в транзакции вызывающего: письмо сохраняется вместе с бизнес-изменениями, SMTP не ждём
+    @Transactional
+    public void enqueue(String recipient, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxMailRepository.save(OutboxMail.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .body(body)
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    // Забираем письма в работу; зависшие в SENDING (например, после рестарта) вернутся по истечении аренды
+    @Transactional
+    public List<OutboxMail> claimDue(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMail> due = outboxMailRepository.findDueForUpdate(
+                List.of(OutboxStatus.PENDING, OutboxStatus.SENDING), now, PageRequest.of(0, limit)
+        );
+        for (OutboxMail mail : due) {
+            mail.setStatus(OutboxStatus.SENDING);
+            mail.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+        }
+        return due;
+    }
+
+    @Transactional
+    public void complete(MailBatchResult result) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<UUID> ids = new ArrayList<>(result.getSent());
+        ids.addAll(result.getFailed().keySet());
+
+        for (OutboxMail mail : outboxMailRepository.findAllById(ids)) {
+            String error = result.getFailed().get(mail.getId());
+            if (error == null) {
+                mail.setStatus(OutboxStatus.SENT);
+                mail.setSentAt(now);
+                mail.setLastError(null);
+                continue;
+            }
+
+            mail.setAttempts(mail.getAttempts() + 1);
+            mail.setLastError(error);
+            if (mail.getAttempts() >= maxAttempts) {
+                mail.setStatus(OutboxStatus.FAILED);
+            } else {
+                // Экспоненциальная задержка: 30с, 60с, 120с, ...
+                long delay = retryBackoffSeconds << (mail.getAttempts() - 1);
+                mail.setStatus(OutboxStatus.PENDING);
+                mail.setNextAttemptAt(now.plusSeconds(delay));
+            }
+        }
+    }
+
+    // Снимаем аренду с писем, которые не дошли до воркера: следующий проход заберёт их сразу
+    @Transactional
+    public void release(List<UUID> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxMail mail : outboxMailRepository.findAllById(ids)) {
+            if (mail.getStatus() == OutboxStatus.SENDING) {
+                mail.setStatus(OutboxStatus.PENDING);
+                mail.setNextAttemptAt(now);
+            }
+        }
+    }
+
+    @Transactional
+    public int purgeSent(LocalDateTime before) {
+        return outboxMailRepository.deleteAllByStatusAndSentAtBefore(OutboxStatus.SENT, before);
+    }
+}
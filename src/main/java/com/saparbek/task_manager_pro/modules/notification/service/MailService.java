@@ -1,103 +1,91 @@
 package com.saparbek.task_manager_pro.modules.notification.service;
 
+import com.saparbek.task_manager_pro.modules.notification.dto.MailTaskLine;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskProjectName;
 import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
 import com.saparbek.task_manager_pro.modules.user.model.User;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.*;
+
+// Письма не отправляются напрямую: кладём их в mail_outbox, отправкой занимается MailOutboxDispatcher
 @Service
 @RequiredArgsConstructor
 public class MailService {
 
-    private final JavaMailSender mailSender;
-
-    public void sendOverdueNotification(Task task) {
-        if (task.getAssignees() != null && !task.getAssignees().isEmpty()) {
-            for (User assignee : task.getAssignees()) {
-                String to = assignee.getEmail();
-                String subject = "⏰ Просроченная задача: " + task.getTitle();
-
-                String content = """
-                <html>
-                <body style="font-family: Arial, sans-serif; padding: 20px; background-color: #f8f9fa;">
-                    <h2 style="color: #dc3545;">⏰ Задача просрочена</h2>
-                    <p><strong>Задача:</strong> %s</p>
-                    <p><strong>Дедлайн:</strong> %s</p>
-                    <p><strong>Проект:</strong> %s</p>
-                    <p>Пожалуйста, обновите статус задачи или свяжитесь с администратором.</p>
-                    <hr>
-                    <p style="font-size: 12px; color: #6c757d;">Это автоматическое уведомление. Платформа Task Manager PRO.</p>
-                </body>
-                </html>
-                """.formatted(
-                        task.getTitle(),
-                        task.getDeadline().toString(),
-                        task.getColumn()
-                                .getBoard()
-                                .getProject()
-                                .getName()
-                );
-
-                try {
-                    MimeMessage message = mailSender.createMimeMessage();
-                    MimeMessageHelper helper = new MimeMessageHelper(message, "utf-8");
-
-                    helper.setTo(to);
-                    helper.setSubject(subject);
-                    helper.setText(content, true); // true = HTML
-
-                    mailSender.send(message);
-                } catch (MessagingException e) {
-                    e.printStackTrace(); // можно заменить логом
-                }
-            }
-        }
+    private final MailOutboxService mailOutboxService;
+    private final MailTemplateRenderer mailTemplateRenderer;
+    private final TaskRepository taskRepository;
+
+    // Одно письмо на пользователя со всеми его просроченными задачами
+    public void sendOverdueDigests(Map<User, List<Task>> tasksByRecipient) {
+        sendDigests(
+                tasksByRecipient,
+                MailTemplateRenderer.OVERDUE_DIGEST,
+                "⏰ Просроченная задача: ",
+                "⏰ Просроченные задачи: "
+        );
     }
 
-    public void sendUpcomingDeadlineNotification(Task task) {
-        String subject = "📅 Сегодня дедлайн задачи: " + task.getTitle();
-        if (task.getAssignees() != null && !task.getAssignees().isEmpty()) {
-            for (User assignee : task.getAssignees()) {
-                String to = assignee.getEmail();
-                String content = """
-            <html>
-            <body style="font-family: Arial, sans-serif; padding: 20px; background-color: #f8f9fa;">
-                <h2 style="color: #ffc107;">📅 Приближается дедлайн</h2>
-                <p><strong>Задача:</strong> %s</p>
-                <p><strong>Дедлайн:</strong> %s</p>
-                <p><strong>Проект:</strong> %s</p>
-                <p>Пожалуйста, выполните задачу до конца дня.</p>
-                <hr>
-                <p style="font-size: 12px; color: #6c757d;">Это автоматическое уведомление. Платформа Task Manager PRO.</p>
-            </body>
-            </html>
-            """.formatted(
-                        task.getTitle(),
-                        task.getDeadline().toString(),
-                        task.getColumn()
-                                .getBoard()
-                                .getProject()
-                                .getName()
-                );
-
-                try {
-                    MimeMessage message = mailSender.createMimeMessage();
-                    MimeMessageHelper helper = new MimeMessageHelper(message, "utf-8");
-
-                    helper.setTo(to);
-                    helper.setSubject(subject);
-                    helper.setText(content, true);
-
-                    mailSender.send(message);
-                } catch (MessagingException e) {
-                    e.printStackTrace(); // Или лог
-                }
+    // Одно письмо на пользователя со всеми задачами, у которых дедлайн сегодня
+    public void sendUpcomingDeadlineDigests(Map<User, List<Task>> tasksByRecipient) {
+        sendDigests(
+                tasksByRecipient,
+                MailTemplateRenderer.DEADLINE_DIGEST,
+                "📅 Сегодня дедлайн задачи: ",
+                "📅 Сегодня дедлайн задач: "
+        );
+    }
+
+    private void sendDigests(Map<User, List<Task>> tasksByRecipient,
+                             String template,
+                             String singleSubject,
+                             String digestSubject) {
+        if (tasksByRecipient.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, String> projectNames = resolveProjectNames(tasksByRecipient.values());
+
+        // Одинаковый набор задач -> одно и то же тело письма, рендерим один раз
+        Map<List<UUID>, String> bodies = new HashMap<>();
+
+        tasksByRecipient.forEach((recipient, tasks) -> {
+            if (tasks.isEmpty()) {
+                return;
             }
+
+            List<UUID> key = tasks.stream().map(Task::getId).toList();
+            String body = bodies.computeIfAbsent(key, k -> mailTemplateRenderer.render(
+                    template,
+                    Map.of("lines", toLines(tasks, projectNames))
+            ));
+            String subject = tasks.size() == 1
+                    ? singleSubject + tasks.get(0).getTitle()
+                    : digestSubject + tasks.size();
+
+            mailOutboxService.enqueue(recipient.getEmail(), subject, body);
+        });
+    }
+
+    // Названия проектов для всей пачки задач одним запросом, без обхода column -> board -> project
+    private Map<UUID, String> resolveProjectNames(Collection<List<Task>> taskLists) {
+        Set<UUID> taskIds = new HashSet<>();
+        taskLists.forEach(tasks -> tasks.forEach(task -> taskIds.add(task.getId())));
+
+        Map<UUID, String> projectNames = new HashMap<>();
+        for (TaskProjectName row : taskRepository.findProjectNamesByTaskIds(taskIds)) {
+            projectNames.put(row.getTaskId(), row.getProjectName());
         }
+        return projectNames;
+    }
+
+    private List<MailTaskLine> toLines(List<Task> tasks, Map<UUID, String> projectNames) {
+        return tasks.stream()
+                .map(task -> new MailTaskLine(task.getTitle(), task.getDeadline(), projectNames.get(task.getId())))
+                .toList();
     }
 
 }
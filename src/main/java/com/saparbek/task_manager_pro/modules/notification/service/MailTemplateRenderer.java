@@ -0,0 +1,26 @@
+package com.saparbek.task_manager_pro.modules.notification.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.Locale;
+import java.util.Map;
+
+// Рендер писем через Thymeleaf: шаблон разбирается один раз и дальше берётся из кэша движка
+@Component
+@RequiredArgsConstructor
+public class MailTemplateRenderer {
+
+    public static final String OVERDUE_DIGEST = "mail/overdue-digest";
+    public static final String DEADLINE_DIGEST = "mail/deadline-digest";
+
+    private static final Locale LOCALE = Locale.forLanguageTag("ru");
+
+    private final ITemplateEngine templateEngine;
+
+    public String render(String template, Map<String, Object> variables) {
+        return templateEngine.process(template, new Context(LOCALE, variables));
+    }
+}
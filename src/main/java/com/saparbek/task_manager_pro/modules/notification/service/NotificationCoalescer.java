@@ -0,0 +1,247 @@
+package com.saparbek.task_manager_pro.modules.notification.service;
+
+import com.saparbek.task_manager_pro.modules.notification.dto.NotificationResponse;
+import com.saparbek.task_manager_pro.modules.notification.model.Notification;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Копит уведомления в течение window-ms, затем пишет их одним batch INSERT
+// и отправляет каждому пользователю один фрейм со всеми его уведомлениями
+@Slf4j
+@Component
+public class NotificationCoalescer {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO notification (id, title, content, read, timestamp, recipient_id)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+
+    // Ключ ресурса транзакции: уведомления, накопленные до коммита
+    private static final Object TX_BUFFER_KEY = new Object();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final int maxPending;
+    private final int maxBuffered;
+    private final int maxAttempts;
+    private final ScheduledExecutorService flusher;
+
+    private final Object lock = new Object();
+    private Map<UUID, List<Notification>> pending = new LinkedHashMap<>();
+    private int pendingCount;
+    private boolean flushRequested;
+    private final Map<UUID, Integer> attempts = new HashMap<>(); // неудачные записи по id уведомления
+
+    public NotificationCoalescer(JdbcTemplate jdbcTemplate,
+                                 SimpMessagingTemplate messagingTemplate,
+                                 @Value("${notification.coalesce.window-ms:250}") long windowMs,
+                                 @Value("${notification.coalesce.max-pending:5000}") int maxPending,
+                                 @Value("${notification.coalesce.max-buffered:50000}") int maxBuffered,
+                                 @Value("${notification.coalesce.max-attempts:3}") int maxAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.maxPending = maxPending;
+        this.maxBuffered = maxBuffered;
+        this.maxAttempts = maxAttempts;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("notification-coalescer-"));
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, windowMs, windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Внутри транзакции уведомления уходят в буфер только после коммита (откат — ничего не шлём)
+    public void submit(Notification notification) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(List.of(notification));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Notification> txBuffer = (List<Notification>) TransactionSynchronizationManager.getResource(TX_BUFFER_KEY);
+        if (txBuffer == null) {
+            List<Notification> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(TX_BUFFER_KEY, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(buffer);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(TX_BUFFER_KEY);
+                }
+            });
+            txBuffer = buffer;
+        }
+        txBuffer.add(notification);
+    }
+
+    private void enqueue(List<Notification> notifications) {
+        boolean signal;
+        int dropped;
+        synchronized (lock) {
+            // Жёсткий потолок буфера: при долгом сбое базы память не растёт бесконечно
+            int accepted = Math.max(0, Math.min(notifications.size(), maxBuffered - pendingCount));
+            for (Notification notification : notifications.subList(0, accepted)) {
+                pending.computeIfAbsent(notification.getRecipient().getId(), id -> new ArrayList<>()).add(notification);
+            }
+            pendingCount += accepted;
+            dropped = notifications.size() - accepted;
+            signal = pendingCount >= maxPending && !flushRequested;
+            if (signal) {
+                flushRequested = true;
+            }
+        }
+        if (dropped > 0) {
+            log.warn("Буфер уведомлений заполнен ({}), отброшено {}", maxBuffered, dropped);
+        }
+        // Сами не пишем: мы в afterCommit чужого запроса — будим поток flusher, ошибки остаются там
+        if (signal) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                log.debug("Flusher уже остановлен, пачку запишет shutdown()");
+            }
+        }
+    }
+
+    public void flush() {
+        Map<UUID, List<Notification>> batch;
+        boolean isolate;
+        synchronized (lock) {
+            flushRequested = false;
+            if (pendingCount == 0) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            pendingCount = 0;
+            isolate = batch.values().stream().flatMap(List::stream)
+                    .anyMatch(notification -> attempts.getOrDefault(notification.getId(), 0) >= maxAttempts);
+        }
+
+        List<Notification> all = batch.values().stream().flatMap(List::stream).toList();
+        Set<UUID> written;
+        if (isolate) {
+            // Пачка уже падала maxAttempts раз: пишем по одной, чтобы найти и выбросить плохую строку
+            written = insertOneByOne(all);
+        } else {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, all, all.size(), (ps, notification) -> bind(ps, notification));
+            } catch (RuntimeException e) {
+                requeue(all);
+                throw e;
+            }
+            written = all.stream().map(Notification::getId).collect(Collectors.toSet());
+            synchronized (lock) {
+                attempts.keySet().removeAll(written);
+            }
+        }
+
+        // Один фрейм на пользователя, новые сверху. Уведомления уже в базе:
+        // сбой брокера не повод писать их повторно — клиент получит их через REST
+        batch.forEach((userId, notifications) -> {
+            List<NotificationResponse> frame = new ArrayList<>(notifications.size());
+            for (int i = notifications.size() - 1; i >= 0; i--) {
+                if (written.contains(notifications.get(i).getId())) {
+                    frame.add(NotificationResponse.from(notifications.get(i)));
+                }
+            }
+            if (frame.isEmpty()) {
+                return;
+            }
+            try {
+                messagingTemplate.convertAndSend("/topic/notifications/" + userId, frame);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось отправить фрейм уведомлений пользователю {}", userId, e);
+            }
+        });
+    }
+
+    private Set<UUID> insertOneByOne(List<Notification> notifications) {
+        Set<UUID> written = new HashSet<>();
+        List<Notification> failed = new ArrayList<>();
+        for (Notification notification : notifications) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, notification));
+                written.add(notification.getId());
+            } catch (RuntimeException e) {
+                int tries;
+                synchronized (lock) {
+                    tries = attempts.getOrDefault(notification.getId(), 0);
+                }
+                if (tries >= maxAttempts) {
+                    log.warn("Уведомление {} для пользователя {} отброшено после {} попыток записи",
+                            notification.getId(), notification.getRecipient().getId(), tries + 1, e);
+                    synchronized (lock) {
+                        attempts.remove(notification.getId());
+                    }
+                } else {
+                    failed.add(notification);
+                }
+            }
+        }
+        synchronized (lock) {
+            attempts.keySet().removeAll(written);
+        }
+        if (!failed.isEmpty()) {
+            requeue(failed);
+        }
+        return written;
+    }
+
+    // Не записанные уведомления — обратно в начало очереди с +1 к числу попыток
+    private void requeue(List<Notification> failed) {
+        synchronized (lock) {
+            Map<UUID, List<Notification>> merged = new LinkedHashMap<>();
+            for (Notification notification : failed) {
+                merged.computeIfAbsent(notification.getRecipient().getId(), id -> new ArrayList<>()).add(notification);
+                attempts.merge(notification.getId(), 1, Integer::sum);
+            }
+            pending.forEach((userId, notifications) ->
+                    merged.computeIfAbsent(userId, id -> new ArrayList<>()).addAll(notifications));
+            pending = merged;
+            pendingCount += failed.size();
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Notification notification) throws SQLException {
+        ps.setObject(1, notification.getId());
+        ps.setString(2, notification.getTitle());
+        ps.setString(3, notification.getContent());
+        ps.setBoolean(4, notification.isRead());
+        ps.setTimestamp(5, Timestamp.valueOf(notification.getTimestamp()));
+        ps.setObject(6, notification.getRecipient().getId());
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Не удалось сохранить пачку уведомлений, повторим на следующем проходе", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flushQuietly();
+    }
+}
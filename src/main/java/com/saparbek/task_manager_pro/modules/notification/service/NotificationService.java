@@ -1,14 +1,20 @@
 package com.saparbek.task_manager_pro.modules.notification.service;
 
+import com.saparbek.task_manager_pro.modules.notification.dto.NotificationPageResponse;
 import com.saparbek.task_manager_pro.modules.notification.dto.NotificationResponse;
 import com.saparbek.task_manager_pro.modules.notification.model.Notification;
 import com.saparbek.task_manager_pro.modules.notification.repository.NotificationRepository;
 import com.saparbek.task_manager_pro.modules.user.model.User;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
 
@@ -16,55 +22,79 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class NotificationService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationCoalescer notificationCoalescer;
 
+    // Запись и отправка по WebSocket идут через NotificationCoalescer: пачкой, один фрейм на пользователя
     public void notifyUser(User user, String title, String content) {
-        Notification notification = Notification.builder()
+        notificationCoalescer.submit(Notification.builder()
+                .id(UUID.randomUUID())
                 .title(title)
                 .content(content)
                 .recipient(user)
                 .timestamp(LocalDateTime.now())
-                .build();
+                .build());
+    }
 
-        notificationRepository.save(notification);
+    // Лента колокольчика постранично (keyset по timestamp, id) вместо всей истории
+    public NotificationPageResponse getUserNotifications(UUID userId, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Limit fetch = Limit.of(pageSize + 1); // +1 — чтобы понять, есть ли следующая страница
 
-        NotificationResponse dto = new NotificationResponse(
-                notification.getId(),
-                notification.getTitle(),
-                notification.getContent(),
-                notification.getTimestamp().toString(),
-                notification.isRead()
-        );
-        messagingTemplate.convertAndSend("/topic/notifications/" + user.getId(), dto);
+        List<Notification> rows;
+        if (cursor == null) {
+            rows = notificationRepository.findByRecipientIdOrderByTimestampDescIdDesc(userId, fetch);
+        } else {
+            Notification after = decodeCursor(cursor);
+            rows = notificationRepository.findPageAfter(userId, after.getTimestamp(), after.getId(), fetch);
+        }
 
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = encodeCursor(rows.get(pageSize - 1));
+        }
 
+        return new NotificationPageResponse(
+                rows.stream().map(NotificationResponse::from).toList(),
+                nextCursor
+        );
     }
 
-    public List<NotificationResponse> getUserNotifications(UUID userId) {
-        return notificationRepository.
-                findByRecipientIdOrderByTimestampDesc(userId)
-                .stream()
-                .map(n -> new NotificationResponse(
-                        n.getId(),
-                        n.getTitle(),
-                        n.getContent(),
-                        n.getTimestamp() != null ? n.getTimestamp().toString() : "N/A",
-                        n.isRead()
-                ))
-                .toList();
+    public long getUnreadCount(UUID userId) {
+        return notificationRepository.countByRecipientIdAndReadFalse(userId);
     }
 
+    @Transactional
     public void markAsRead(UUID id) {
-        notificationRepository.findById(id).ifPresent(notification -> {
-            notification.setRead(true);
-            notificationRepository.save(notification);
-        });
+        notificationRepository.markRead(id);
+    }
+
+    // Один UPDATE вместо загрузки всех непрочитанных и saveAll
+    @Transactional
+    public int markAllRead(UUID userId) {
+        return notificationRepository.markAllRead(userId);
+    }
+
+    // Курсор — "timestamp|id" последнего уведомления страницы в base64url
+    private String encodeCursor(Notification last) {
+        String raw = last.getTimestamp() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
-    public void markAllRead(UUID userId) {
-        List<Notification> notifications = notificationRepository.findByRecipientIdAndReadFalse(userId);
-        notifications.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(notifications);
+    private Notification decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return Notification.builder()
+                    .timestamp(LocalDateTime.parse(raw.substring(0, separator)))
+                    .id(UUID.fromString(raw.substring(separator + 1)))
+                    .build();
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный курсор");
+        }
     }
 }
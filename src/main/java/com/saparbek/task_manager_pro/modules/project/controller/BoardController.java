@@ -1,11 +1,15 @@
 package com.saparbek.task_manager_pro.modules.project.controller;
 
+import com.saparbek.task_manager_pro.modules.project.dto.board.BoardChangesResponse;
 import com.saparbek.task_manager_pro.modules.project.dto.board.BoardRequest;
 import com.saparbek.task_manager_pro.modules.project.dto.board.BoardResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.board.BoardSnapshotResponse;
+import com.saparbek.task_manager_pro.modules.project.service.BoardChangeService;
 import com.saparbek.task_manager_pro.modules.project.service.BoardService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,6 +20,7 @@ import java.util.UUID;
 public class BoardController {
 
     private final BoardService boardService;
+    private final BoardChangeService boardChangeService;
 
     @PostMapping
     public ResponseEntity<BoardResponse> createBoard(@RequestBody BoardRequest request) {
@@ -23,8 +28,27 @@ public class BoardController {
     }
 
     @GetMapping("/project/{projectId}")
-    public ResponseEntity<List<BoardResponse>> getBoards(@PathVariable UUID projectId) {
-        return ResponseEntity.ok(boardService.getBoardsByProjectId(projectId));
+    public ResponseEntity<List<BoardResponse>> getBoards(@PathVariable UUID projectId, WebRequest webRequest) {
+        return ConditionalResponses.withEtag(
+                webRequest,
+                boardService.getBoardsEtag(projectId),
+                () -> boardService.getBoardsByProjectId(projectId)
+        );
+    }
+
+    @GetMapping("/{boardId}/snapshot")
+    public ResponseEntity<BoardSnapshotResponse> getSnapshot(@PathVariable UUID boardId, WebRequest webRequest) {
+        return ConditionalResponses.withEtag(
+                webRequest,
+                boardService.getBoardEtag(boardId),
+                () -> boardService.getBoardSnapshot(boardId)
+        );
     }
-}
 
+    // Delta-sync: только изменения и удаления после since (changeSeq из /snapshot или из событий доски)
+    @GetMapping("/{boardId}/changes")
+    public ResponseEntity<BoardChangesResponse> getChanges(@PathVariable UUID boardId,
+                                                           @RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(boardChangeService.getChanges(boardId, since));
+    }
+}
@@ -6,6 +6,7 @@ import com.saparbek.task_manager_pro.modules.project.service.ColumnService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -23,8 +24,12 @@ public class ColumnController {
     }
 
     @GetMapping("/by-board/{boardId}")
-    public ResponseEntity<List<ColumnResponse>> getColumnsByBoard(@PathVariable UUID boardId) {
-        return ResponseEntity.ok(columnService.getColumnsByBoardId(boardId));
+    public ResponseEntity<List<ColumnResponse>> getColumnsByBoard(@PathVariable UUID boardId, WebRequest webRequest) {
+        return ConditionalResponses.withEtag(
+                webRequest,
+                columnService.getColumnsEtag(boardId),
+                () -> columnService.getColumnsByBoardId(boardId)
+        );
     }
 
     @PutMapping("/{id}")
@@ -0,0 +1,27 @@
+package com.saparbek.task_manager_pro.modules.project.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+// Условный GET: версия считается дешёвым запросом, ответ собирается только если If-None-Match не совпал
+final class ConditionalResponses {
+
+    // Браузер хранит ответ, но каждый раз перепроверяет его по ETag
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> withEtag(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return null; // 304 и заголовок ETag уже выставлены
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(body.get());
+    }
+}
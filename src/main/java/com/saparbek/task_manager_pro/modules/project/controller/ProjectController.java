@@ -11,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 import java.util.List;
@@ -27,15 +28,25 @@ public class ProjectController {
 
     // ✅ Получить все проекты текущего пользователя
     @GetMapping
-    public List<ProjectResponse> getAll(@AuthenticationPrincipal UserDetails user) {
-        return projectService.getProjectsByUser(user.getUsername());
+    public ResponseEntity<List<ProjectResponse>> getAll(@AuthenticationPrincipal UserDetails user,
+                                                        WebRequest webRequest) {
+        return ConditionalResponses.withEtag(
+                webRequest,
+                projectService.getProjectsEtag(user.getUsername()),
+                () -> projectService.getProjectsByUser(user.getUsername())
+        );
     }
 
     // 🔍 Получить проект по ID
     @GetMapping("/{id}")
-    public ProjectResponse getById(@PathVariable UUID id,
-                                   @AuthenticationPrincipal UserDetails user) {
-        return projectService.getProjectByIdAndUser(id, user.getUsername());
+    public ResponseEntity<ProjectResponse> getById(@PathVariable UUID id,
+                                                   @AuthenticationPrincipal UserDetails user,
+                                                   WebRequest webRequest) {
+        return ConditionalResponses.withEtag(
+                webRequest,
+                projectService.getProjectEtag(id, user.getUsername()),
+                () -> projectService.getProjectByIdAndUser(id, user.getUsername())
+        );
     }
     @PreAuthorize("hasRole('ADMIN')")
     @PatchMapping("/{id}")
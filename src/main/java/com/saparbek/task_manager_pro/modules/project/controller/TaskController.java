@@ -1,26 +1,47 @@
 package com.saparbek.task_manager_pro.modules.project.controller;
 
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskBatchItemResult;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskBatchRequest;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskBatchResponse;
 import com.saparbek.task_manager_pro.modules.project.dto.task.TaskFilterRequest;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskPageResponse;
 import com.saparbek.task_manager_pro.modules.project.dto.task.TaskRequest;
 import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskStatsBucket;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskSummaryResponse;
 import com.saparbek.task_manager_pro.modules.project.dto.task.WeeklyStats;
+import com.saparbek.task_manager_pro.modules.project.exception.TaskBatchConflictException;
+import com.saparbek.task_manager_pro.modules.project.exception.TaskConflictException;
+import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.project.model.enums.StatsGranularity;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskBatchItemStatus;
 import com.saparbek.task_manager_pro.modules.project.model.enums.TaskPriority;
 import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
+import com.saparbek.task_manager_pro.modules.project.service.TaskBatchService;
 import com.saparbek.task_manager_pro.modules.project.service.TaskService;
+import com.saparbek.task_manager_pro.modules.project.service.TaskExportService;
+import com.saparbek.task_manager_pro.modules.project.service.TaskStatsService;
+import com.saparbek.task_manager_pro.modules.project.service.TaskSummaryService;
 import com.saparbek.task_manager_pro.modules.user.model.User;
 import com.saparbek.task_manager_pro.modules.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -29,43 +50,76 @@ import java.util.UUID;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskBatchService taskBatchService;
+    private final TaskStatsService taskStatsService;
+    private final TaskSummaryService taskSummaryService;
+    private final TaskExportService taskExportService;
     private final UserRepository userRepository;
-    @Autowired
-    private SimpMessagingTemplate messagingTemplate;
 
 
     // ✅ Create
     @PostMapping
     public ResponseEntity<TaskResponse> create(@RequestBody TaskRequest request, @AuthenticationPrincipal UserDetails user) {
-        TaskResponse response = taskService.createTask(request, user.getUsername());
+        // 📢 Событие доски публикует TaskService
+        return ResponseEntity.ok(taskService.createTask(request, user.getUsername()));
+    }
 
-        // 📢 Отправляем уведомление по WebSocket
-        messagingTemplate.convertAndSend(
-                "/topic/notifications",
-                "✅ Задача создана: " + response.getTitle()
-        );
 
-        return ResponseEntity.ok(response);
+    // ✅ Batch: create/update/move/delete в одной транзакции, результат по каждой операции
+    @PostMapping("/batch")
+    public ResponseEntity<TaskBatchResponse> batch(@RequestBody TaskBatchRequest request, @AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(taskBatchService.execute(request, user.getUsername()));
     }
 
 
     // ✅ Get tasks by column
     @GetMapping("/column/{columnId}")
-    public ResponseEntity<List<TaskResponse>> getTasksByColumn(@PathVariable UUID columnId) {
-        return ResponseEntity.ok(taskService.getTasksByColumn(columnId));
+    public ResponseEntity<List<TaskResponse>> getTasksByColumn(@PathVariable UUID columnId, WebRequest webRequest) {
+        return ConditionalResponses.withEtag(
+                webRequest,
+                taskService.getColumnTasksEtag(columnId),
+                () -> taskService.getTasksByColumn(columnId)
+        );
     }
 
+    // ✅ Мои задачи постранично: ?cursor=<nextCursor из прошлого ответа>&limit=50
     @GetMapping("/my")
-    public ResponseEntity<List<TaskResponse>> getMyTasks(@AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<TaskPageResponse> getMyTasks(@AuthenticationPrincipal UserDetails userDetails,
+                                                       @RequestParam(required = false) String cursor,
+                                                       @RequestParam(required = false) Integer limit) {
         User currentUser = userRepository.findByEmail(userDetails.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return ResponseEntity.ok(taskService.getTasksByAssignee(currentUser.getId()));
+        return ResponseEntity.ok(taskService.getTasksByAssigneePage(currentUser.getId(), cursor, limit));
+    }
+
+    // 📤 Все мои задачи в NDJSON (одна задача — одна строка), отдаётся потоком
+    @GetMapping(value = "/my/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportMyTasks(@AuthenticationPrincipal UserDetails userDetails) {
+        UUID userId = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"))
+                .getId();
+        StreamingResponseBody body = out -> taskExportService.exportByAssignee(userId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("Content-Disposition", "attachment; filename=\"my-tasks.ndjson\"")
+                .body(body);
+    }
+
+    // 📋 Сводка для дашборда: счётчики + первые N просроченных и ближайших задач вместо всего /my
+    @GetMapping("/my/summary")
+    public TaskSummaryResponse getMySummary(@AuthenticationPrincipal UserDetails userDetails,
+                                            @RequestParam(defaultValue = "10") int overdueLimit,
+                                            @RequestParam(defaultValue = "3") int nearestLimit) {
+        UUID userId = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"))
+                .getId();
+        return taskSummaryService.getSummary(userId, overdueLimit, nearestLimit);
     }
 
     // ✅ Get task by ID
     @GetMapping("/{id}")
-    public ResponseEntity<TaskResponse> getTaskById(@PathVariable UUID id) {
-        return ResponseEntity.ok(taskService.getTaskById(id));
+    public ResponseEntity<TaskResponse> getTaskById(@PathVariable UUID id, WebRequest webRequest) {
+        return ConditionalResponses.withEtag(webRequest, taskService.getTaskEtag(id), () -> taskService.getTaskById(id));
     }
 
     // ✅ Update task by ID
@@ -76,6 +130,45 @@ public class TaskController {
         return ResponseEntity.ok(taskService.updateTask(id, request, user.getUsername()));
     }
 
+    // ✅ Partial update: {"version": 3, "columnId": "..."} — только переданные поля
+    @PatchMapping("/{id}")
+    public ResponseEntity<TaskResponse> patchTask(@PathVariable UUID id,
+                                                  @RequestBody Map<String, Object> updates,
+                                                  @AuthenticationPrincipal UserDetails user) {
+        return ResponseEntity.ok(taskService.patchTask(id, updates, user.getUsername()));
+    }
+
+    // ⚠️ 409: задачу успели изменить — отдаём текущее состояние, клиент сливает его у себя
+    @ExceptionHandler(TaskConflictException.class)
+    public ResponseEntity<TaskResponse> handleConflict(TaskConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getCurrent());
+    }
+
+    // ⚠️ 409 на пакет: он откатился целиком, по задачам с CONFLICT отдаём их текущее состояние
+    @ExceptionHandler(TaskBatchConflictException.class)
+    public ResponseEntity<TaskBatchResponse> handleBatchConflict(TaskBatchConflictException e) {
+        TaskBatchResponse response = e.getResponse();
+        for (TaskBatchItemResult item : response.getResults()) {
+            if (item.getStatus() == TaskBatchItemStatus.CONFLICT && item.getTaskId() != null) {
+                try {
+                    item.setTask(taskService.getTaskById(item.getTaskId()));
+                } catch (RuntimeException notFound) {
+                    item.setTask(null); // задачу успели удалить
+                }
+            }
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    // Гонка между проверкой версии и записью (@Version в UPDATE ... WHERE version = ?)
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<TaskResponse> handleConcurrentUpdate(ObjectOptimisticLockingFailureException e) {
+        if (!(e.getIdentifier() instanceof UUID taskId) || !Task.class.getName().equals(e.getPersistentClassName())) {
+            throw e;
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(taskService.getTaskById(taskId));
+    }
+
 
     // ✅ Delete task by ID
     @DeleteMapping("/{id}")
@@ -123,13 +216,43 @@ public class TaskController {
     public List<WeeklyStats> getWeeklyStats(@AuthenticationPrincipal UserDetails user) {
         UUID userId = userRepository.findByEmail(user.getUsername())
                 .orElseThrow().getId();
-        return taskService.getWeeklyStats(userId);
+        return taskStatsService.getWeeklyStats(userId);
+    }
+
+    // 📊 Статистика за период: по умолчанию последние 7 дней текущего пользователя, с projectId — по проекту
+    @GetMapping("/stats")
+    public List<TaskStatsBucket> getStats(@AuthenticationPrincipal UserDetails user,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(defaultValue = "DAY") StatsGranularity granularity,
+                                          @RequestParam(required = false) UUID projectId) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(6);
+        if (projectId != null) {
+            return taskStatsService.getProjectStats(projectId, user.getUsername(), start, end, granularity);
+        }
+        UUID userId = userRepository.findByEmail(user.getUsername())
+                .orElseThrow().getId();
+        return taskStatsService.getUserStats(userId, start, end, granularity);
     }
 
 
+    // ✅ Все задачи постранично: ?cursor=<nextCursor из прошлого ответа>&limit=50
     @GetMapping
-    public List<TaskResponse> getAllTasks() {
-        return taskService.getAllTasks();
+    public TaskPageResponse getAllTasks(@RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer limit) {
+        return taskService.getTasksPage(cursor, limit);
+    }
+
+    // 📤 Полная выгрузка задач в NDJSON, отдаётся потоком — все задачи системы, только для админа
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAllTasks() {
+        StreamingResponseBody body = taskExportService::exportAll;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("Content-Disposition", "attachment; filename=\"tasks.ndjson\"")
+                .body(body);
     }
 
 
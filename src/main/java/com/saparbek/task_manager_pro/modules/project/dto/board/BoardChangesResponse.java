@@ -0,0 +1,22 @@
+package com.saparbek.task_manager_pro.modules.project.dto.board;
+
+import com.saparbek.task_manager_pro.modules.project.dto.column.ColumnResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+// Изменения доски после since: сначала применить deleted, затем columns и tasks
+@Data
+@Builder
+public class BoardChangesResponse {
+    private UUID boardId;
+    private long since;
+    private long changeSeq;         // следующий запрос — с since = changeSeq
+    private boolean resetRequired;  // история до since уже удалена — нужен полный /snapshot
+    private List<ColumnResponse> columns;
+    private List<TaskResponse> tasks;
+    private List<BoardTombstoneResponse> deleted;
+}
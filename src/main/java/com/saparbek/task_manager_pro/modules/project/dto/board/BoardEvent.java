@@ -0,0 +1,21 @@
+package com.saparbek.task_manager_pro.modules.project.dto.board;
+
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEventType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Событие доски для /topic/projects/{projectId}/boards/{boardId}
+@Data
+@Builder
+public class BoardEvent {
+    private BoardEventType type;
+    private UUID projectId;
+    private UUID boardId;
+    private UUID entityId;
+    private long changeSeq;
+    private Object payload; // TaskResponse / ColumnResponse, для *_DELETED — null
+    private LocalDateTime timestamp;
+}
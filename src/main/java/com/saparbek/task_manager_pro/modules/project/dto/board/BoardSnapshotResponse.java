@@ -0,0 +1,19 @@
+package com.saparbek.task_manager_pro.modules.project.dto.board;
+
+import com.saparbek.task_manager_pro.modules.project.dto.column.ColumnResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import com.saparbek.task_manager_pro.modules.user.dto.UserResponse;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BoardSnapshotResponse {
+    private BoardResponse board;
+    private long changeSeq; // с этого номера продолжать /changes?since=
+    private List<ColumnResponse> columns;
+    private List<TaskResponse> tasks;
+    private List<UserResponse> assignees; // уникальные исполнители всех задач доски
+}
@@ -0,0 +1,13 @@
+package com.saparbek.task_manager_pro.modules.project.dto.board;
+
+import com.saparbek.task_manager_pro.modules.project.model.BoardTombstone;
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEntityType;
+
+import java.util.UUID;
+
+public record BoardTombstoneResponse(BoardEntityType entityType, UUID entityId, long changeSeq) {
+
+    public static BoardTombstoneResponse from(BoardTombstone tombstone) {
+        return new BoardTombstoneResponse(tombstone.getEntityType(), tombstone.getEntityId(), tombstone.getChangeSeq());
+    }
+}
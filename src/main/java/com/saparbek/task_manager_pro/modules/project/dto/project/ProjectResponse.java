@@ -17,4 +17,8 @@ public class ProjectResponse {
     private LocalDateTime createdAt;
     private String status;
     private int taskCount;
+    private long todoCount;
+    private long inProgressCount;
+    private long doneCount;
+    private long overdueCount;
 }
\ No newline at end of file
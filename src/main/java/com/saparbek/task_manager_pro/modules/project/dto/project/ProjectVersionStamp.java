@@ -0,0 +1,13 @@
+package com.saparbek.task_manager_pro.modules.project.dto.project;
+
+import java.util.UUID;
+
+// Версия проекта целиком: сам проект + число досок + сумма их номеров изменений + просроченные (см. ProjectRepository)
+public interface ProjectVersionStamp {
+    UUID getProjectId();
+    String getCreatedBy();
+    long getVersion();
+    long getBoardCount();
+    long getChangeSeqSum();
+    long getOverdueCount();
+}
@@ -0,0 +1,10 @@
+package com.saparbek.task_manager_pro.modules.project.dto.task;
+
+import java.util.UUID;
+
+// Проекция: пара задача — исполнитель для пачки задач (см. TaskRepository.findAssigneesByTaskIds)
+public interface TaskAssigneeRow {
+    UUID getTaskId();
+    UUID getUserId();
+    String getUsername();
+}
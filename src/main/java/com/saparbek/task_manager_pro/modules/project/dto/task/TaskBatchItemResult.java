@@ -0,0 +1,20 @@
+package com.saparbek.task_manager_pro.modules.project.dto.task;
+
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskBatchItemStatus;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskBatchOperationType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+// Результат одной операции; index — её позиция в запросе
+@Data
+@Builder
+public class TaskBatchItemResult {
+    private int index;
+    private TaskBatchOperationType type;
+    private TaskBatchItemStatus status;
+    private UUID taskId;
+    private TaskResponse task;   // новое состояние, при CONFLICT — текущее; для DELETE — null
+    private String error;
+}
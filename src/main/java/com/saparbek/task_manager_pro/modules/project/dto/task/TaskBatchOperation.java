@@ -0,0 +1,17 @@
+package com.saparbek.task_manager_pro.modules.project.dto.task;
+
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskBatchOperationType;
+import lombok.Data;
+
+import java.util.UUID;
+
+// CREATE: task; UPDATE: taskId + task; MOVE: taskId + columnId; DELETE: taskId.
+// version — как в TaskRequest: при расхождении операция получает CONFLICT
+@Data
+public class TaskBatchOperation {
+    private TaskBatchOperationType type;
+    private UUID taskId;
+    private Long version;
+    private UUID columnId;
+    private TaskRequest task;
+}
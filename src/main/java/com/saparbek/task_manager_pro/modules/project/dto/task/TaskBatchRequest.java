@@ -0,0 +1,11 @@
+package com.saparbek.task_manager_pro.modules.project.dto.task;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TaskBatchRequest {
+    private List<TaskBatchOperation> operations;
+    private boolean atomic; // true — при любой ошибке не применяется ничего
+}
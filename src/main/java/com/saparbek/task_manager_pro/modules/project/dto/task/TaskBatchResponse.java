@@ -0,0 +1,14 @@
+package com.saparbek.task_manager_pro.modules.project.dto.task;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TaskBatchResponse {
+    private int succeeded;
+    private int failed;
+    private List<TaskBatchItemResult> results;
+}
@@ -0,0 +1,22 @@
+package com.saparbek.task_manager_pro.modules.project.dto.task;
+
+import com.saparbek.task_manager_pro.modules.project.model.UserTaskCounter;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskCounts {
+    private long total;
+    private long todo;
+    private long inProgress;
+    private long done;
+    private long overdue;
+
+    public static TaskCounts from(UserTaskCounter counter) {
+        return new TaskCounts(counter.getTotal(), counter.getTodo(), counter.getInProgress(),
+                counter.getDone(), counter.getOverdue());
+    }
+}
@@ -0,0 +1,14 @@
+package com.saparbek.task_manager_pro.modules.project.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Страница задач; nextCursor == null — дальше задач нет
+@Getter
+@AllArgsConstructor
+public class TaskPageResponse {
+    private List<TaskResponse> items;
+    private String nextCursor;
+}
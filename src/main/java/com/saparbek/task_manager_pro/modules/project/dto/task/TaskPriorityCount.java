@@ -0,0 +1,9 @@
+package com.saparbek.task_manager_pro.modules.project.dto.task;
+
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskPriority;
+
+// Проекция: число задач пользователя с данным приоритетом (см. TaskRepository.countByPriorityForAssignee)
+public interface TaskPriorityCount {
+    TaskPriority getPriority();
+    long getCount();
+}
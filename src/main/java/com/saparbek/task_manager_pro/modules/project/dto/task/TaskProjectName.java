@@ -0,0 +1,9 @@
+package com.saparbek.task_manager_pro.modules.project.dto.task;
+
+import java.util.UUID;
+
+// Проекция: название проекта задачи одним запросом для пачки задач (см. TaskRepository.findProjectNamesByTaskIds)
+public interface TaskProjectName {
+    UUID getTaskId();
+    String getProjectName();
+}
@@ -19,4 +19,5 @@ public class TaskRequest {
     private LocalDate deadline;
     private UUID columnId;
     private List<UUID> assigneeIds;
+    private Long version; // версия, которую видел клиент; null — без проверки
 }
\ No newline at end of file
@@ -29,6 +29,7 @@ public class TaskResponse {
     private List<UUID> assigneeIds;
     private UUID columnId;
     private List<String> assigneeUsernames;
+    private long version;
 
     public static TaskResponse from(Task task) {
         return TaskResponse.builder()
@@ -45,6 +46,7 @@ public class TaskResponse {
                 .assigneeUsernames(task.getAssignees().stream()
                         .map(User::getUsername)
                         .toList())
+                .version(task.getVersion())
                 .build();
     }
 
@@ -0,0 +1,16 @@
+package com.saparbek.task_manager_pro.modules.project.dto.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Один интервал статистики: from..to включительно
+@Data
+@AllArgsConstructor
+public class TaskStatsBucket {
+    private LocalDate from;
+    private LocalDate to;
+    private long completed; // закрыты в этом интервале
+    private long pending;   // не закрыты и созданы до конца интервала
+}
@@ -0,0 +1,16 @@
+package com.saparbek.task_manager_pro.modules.project.dto.task;
+
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskPriority;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Проекция: краткая карточка задачи для дашборда, без исполнителей и колонки (см. TaskRepository.findOverdueForSummary)
+public interface TaskSummaryItem {
+    UUID getId();
+    String getTitle();
+    TaskStatus getStatus();
+    TaskPriority getPriority();
+    LocalDate getDeadline();
+}
@@ -0,0 +1,22 @@
+package com.saparbek.task_manager_pro.modules.project.dto.task;
+
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskPriority;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+// Сводка для дашборда: счётчики целиком, списки — только первые N задач
+@Data
+@Builder
+public class TaskSummaryResponse {
+    private long total;
+    private long todo;
+    private long inProgress;
+    private long done;
+    private long overdueCount; // всего просроченных; в overdue — не больше лимита
+    private Map<TaskPriority, Long> byPriority;
+    private List<TaskSummaryItem> overdue;
+    private List<TaskSummaryItem> nearest;
+}
@@ -0,0 +1,17 @@
+package com.saparbek.task_manager_pro.modules.project.exception;
+
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskBatchResponse;
+import lombok.Getter;
+
+// Задачу пакета изменили между чтением и записью: пакет откатывается целиком,
+// response — результат по каждой операции (CONFLICT / SKIPPED)
+@Getter
+public class TaskBatchConflictException extends RuntimeException {
+
+    private final TaskBatchResponse response;
+
+    public TaskBatchConflictException(TaskBatchResponse response) {
+        super("Task was modified concurrently");
+        this.response = response;
+    }
+}
@@ -0,0 +1,16 @@
+package com.saparbek.task_manager_pro.modules.project.exception;
+
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import lombok.Getter;
+
+// Клиент правил устаревшую версию задачи; current — то, что сейчас в базе
+@Getter
+public class TaskConflictException extends RuntimeException {
+
+    private final TaskResponse current;
+
+    public TaskConflictException(TaskResponse current) {
+        super("Task was modified concurrently");
+        this.current = current;
+    }
+}
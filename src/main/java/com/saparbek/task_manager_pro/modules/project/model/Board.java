@@ -27,6 +27,16 @@ public class Board {
     @JoinColumn(name = "project_Id")
     private Project project;
 
+    // Последний выданный номер изменения доски (задачи, колонки, удаления)
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long changeSeq = 0;
+
+    // Номер, до которого tombstones уже удалены: с since ниже него клиенту нужен полный снимок
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long prunedSeq = 0;
+
     @OneToMany(mappedBy = "board", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ColumnEntity> columns = new ArrayList<>();
     @PrePersist
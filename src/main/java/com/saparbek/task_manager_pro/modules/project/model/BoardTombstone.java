@@ -0,0 +1,40 @@
+package com.saparbek.task_manager_pro.modules.project.model;
+
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEntityType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// След удаления задачи/колонки: по нему delta-sync сообщает клиенту, что объект исчез с доски
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "board_tombstones",
+        indexes = @Index(name = "idx_board_tombstones_board_seq", columnList = "board_id, change_seq"))
+public class BoardTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID boardId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BoardEntityType entityType;
+
+    @Column(nullable = false)
+    private UUID entityId;
+
+    @Column(nullable = false)
+    private long changeSeq;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -11,15 +11,25 @@ import java.util.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "columns")
+@Table(name = "columns", indexes = {
+        @Index(name = "idx_columns_board_change_seq", columnList = "board_id, change_seq")
+})
 public class ColumnEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     private String name;
 
+    // Номер изменения доски, на котором колонка менялась в последний раз
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long changeSeq;
+
     @ManyToOne
     @JoinColumn(name = "board_id")
     private Board board;
@@ -21,6 +21,10 @@ public class Project {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     private String name;
 
     private String description;
@@ -38,9 +42,23 @@ public class Project {
     @Builder.Default
     private ProjectStatus status = ProjectStatus.ACTIVE;
 
+    // Счётчики задач проекта меняет только TaskCounterService (SQL-инкременты), сущность их не перезаписывает
     @Builder.Default
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "integer default 0")
     private int taskCount = 0;
 
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long todoCount;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long inProgressCount;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long doneCount;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "bigint default 0")
+    private long overdueCount;
+
     @OneToMany(mappedBy = "project", cascade = CascadeType.ALL)
     private List<Board> boards = new ArrayList<>();
 
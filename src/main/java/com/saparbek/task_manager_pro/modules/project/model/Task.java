@@ -5,6 +5,7 @@ import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
 import com.saparbek.task_manager_pro.modules.user.model.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -18,12 +19,22 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@DynamicUpdate // PATCH переноса пишет только status/column_id, а не всю строку
+@Table(indexes = {
+        @Index(name = "idx_task_overdue_deadline", columnList = "overdue, deadline"),
+        @Index(name = "idx_task_deadline", columnList = "deadline"),
+        @Index(name = "idx_task_column_change_seq", columnList = "column_id, change_seq")
+})
 public class Task {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version;
+
     private String title;
     private String description;
 
@@ -44,19 +55,24 @@ public class Task {
     @Column
     private LocalDateTime completedAt;
 
+    // Номер изменения доски, на котором задача менялась в последний раз
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long changeSeq;
+
 
     @ManyToMany
     @JoinTable(
             name = "task_assignees",
             joinColumns = @JoinColumn(name = "task_id"),
-            inverseJoinColumns = @JoinColumn(name = "user_id")
+            inverseJoinColumns = @JoinColumn(name = "user_id"),
+            indexes = @Index(name = "idx_task_assignees_user", columnList = "user_id") // статистика и «мои задачи»
     )
     private List<User> assignees = new ArrayList<>();
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "column_id")
     private ColumnEntity column;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY) // EAGER тянул проект к каждой прочитанной задаче
     @JoinColumn(name = "project_id")
     private Project project;
 
@@ -0,0 +1,35 @@
+package com.saparbek.task_manager_pro.modules.project.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.util.UUID;
+
+// Счётчики задач исполнителя (см. V8__add_task_counters.sql); пишет их только TaskCounterService
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_task_counters")
+public class UserTaskCounter {
+
+    @Id
+    private UUID userId;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false)
+    private long todo;
+
+    @Column(nullable = false)
+    private long inProgress;
+
+    @Column(nullable = false)
+    private long done;
+
+    @Column(nullable = false)
+    private long overdue;
+}
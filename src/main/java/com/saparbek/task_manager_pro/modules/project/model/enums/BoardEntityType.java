@@ -0,0 +1,6 @@
+package com.saparbek.task_manager_pro.modules.project.model.enums;
+
+public enum BoardEntityType {
+    TASK,
+    COLUMN
+}
@@ -0,0 +1,11 @@
+package com.saparbek.task_manager_pro.modules.project.model.enums;
+
+public enum BoardEventType {
+    TASK_CREATED,
+    TASK_UPDATED,
+    TASK_MOVED,
+    TASK_DELETED,
+    COLUMN_CREATED,
+    COLUMN_UPDATED,
+    COLUMN_DELETED
+}
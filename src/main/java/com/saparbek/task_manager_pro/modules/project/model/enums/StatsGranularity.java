@@ -0,0 +1,38 @@
+package com.saparbek.task_manager_pro.modules.project.model.enums;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+import static java.time.DayOfWeek.MONDAY;
+
+public enum StatsGranularity {
+    DAY("1 day", ChronoUnit.DAYS),
+    WEEK("1 week", ChronoUnit.WEEKS),
+    MONTH("1 month", ChronoUnit.MONTHS);
+
+    private final String interval; // шаг generate_series
+    private final ChronoUnit unit;
+
+    StatsGranularity(String interval, ChronoUnit unit) {
+        this.interval = interval;
+        this.unit = unit;
+    }
+
+    public String getInterval() {
+        return interval;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    // Начало интервала, в который попадает дата: неделя — с понедельника, месяц — с 1-го числа
+    public LocalDate align(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,9 @@
+package com.saparbek.task_manager_pro.modules.project.model.enums;
+
+public enum TaskBatchItemStatus {
+    OK,
+    NOT_FOUND,
+    CONFLICT,
+    INVALID,
+    SKIPPED // atomic-пакет не применён из-за ошибки в другой операции
+}
@@ -0,0 +1,8 @@
+package com.saparbek.task_manager_pro.modules.project.model.enums;
+
+public enum TaskBatchOperationType {
+    CREATE,
+    UPDATE,
+    MOVE,
+    DELETE
+}
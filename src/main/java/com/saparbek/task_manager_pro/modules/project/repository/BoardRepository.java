@@ -2,10 +2,64 @@ package com.saparbek.task_manager_pro.modules.project.repository;
 
 import com.saparbek.task_manager_pro.modules.project.model.Board;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface BoardRepository extends JpaRepository<Board, UUID> {
     List<Board> findAllByProjectId(UUID projectId);
+
+    @Query("""
+    SELECT b
+    FROM Board b
+    JOIN FETCH b.project p
+    LEFT JOIN FETCH p.owner
+    WHERE b.id = :boardId
+""")
+    Optional<Board> findWithProjectById(@Param("boardId") UUID boardId);
+
+    // Доступ к событиям доски: доска из этого проекта, пользователь — владелец или участник
+    @Query("""
+    SELECT COUNT(b) > 0
+    FROM Board b
+    JOIN b.project p
+    WHERE b.id = :boardId
+      AND p.id = :projectId
+      AND (p.createdBy = :email
+           OR EXISTS (SELECT 1 FROM UserProject up WHERE up.project = p AND up.user.email = :email))
+""")
+    boolean isAccessibleBy(@Param("boardId") UUID boardId,
+                           @Param("projectId") UUID projectId,
+                           @Param("email") String email);
+
+    // Строка доски остаётся заблокированной до коммита: номера изменений фиксируются строго по порядку
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Board b SET b.changeSeq = b.changeSeq + 1 WHERE b.id = :boardId")
+    int incrementChangeSeq(@Param("boardId") UUID boardId);
+
+    // Пакетные операции резервируют сразу диапазон номеров одним UPDATE.
+    // CAST явный: иначе Hibernate подставит в cast columnDefinition ("bigint default 0")
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Board b SET b.changeSeq = b.changeSeq + CAST(:count AS Long) WHERE b.id = :boardId")
+    int incrementChangeSeqBy(@Param("boardId") UUID boardId, @Param("count") long count);
+
+    @Query("SELECT b.changeSeq FROM Board b WHERE b.id = :boardId")
+    Optional<Long> findChangeSeq(@Param("boardId") UUID boardId);
+
+    @Query("SELECT b.id FROM Board b WHERE b.project.id = :projectId ORDER BY b.id")
+    List<UUID> findIdsByProjectId(@Param("projectId") UUID projectId);
+
+    // Перед удалением старых tombstones запоминаем, до какого номера история уже неполная
+    @Modifying
+    @Query("""
+    UPDATE Board b
+    SET b.prunedSeq = (SELECT MAX(t.changeSeq) FROM BoardTombstone t WHERE t.boardId = b.id AND t.deletedAt < :cutoff)
+    WHERE EXISTS (SELECT 1 FROM BoardTombstone t WHERE t.boardId = b.id AND t.deletedAt < :cutoff)
+""")
+    int raisePrunedSeq(@Param("cutoff") LocalDateTime cutoff);
 }
@@ -0,0 +1,20 @@
+package com.saparbek.task_manager_pro.modules.project.repository;
+
+import com.saparbek.task_manager_pro.modules.project.model.BoardTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface BoardTombstoneRepository extends JpaRepository<BoardTombstone, UUID> {
+
+    List<BoardTombstone> findAllByBoardIdAndChangeSeqBetweenOrderByChangeSeq(UUID boardId, long from, long to);
+
+    @Modifying
+    @Query("DELETE FROM BoardTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteAllDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -3,10 +3,31 @@ package com.saparbek.task_manager_pro.modules.project.repository;
 import com.saparbek.task_manager_pro.modules.project.model.ColumnEntity;
 import com.saparbek.task_manager_pro.modules.project.model.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ColumnRepository extends JpaRepository<ColumnEntity, UUID> {
     List<ColumnEntity> findAllByBoardId(UUID boardId);
+
+    List<ColumnEntity> findAllByBoardIdAndChangeSeqBetween(UUID boardId, long from, long to);
+
+    // Колонки вместе с доской и проектом — одним запросом для пакетных операций
+    @Query("""
+    SELECT c
+    FROM ColumnEntity c
+    JOIN FETCH c.board b
+    JOIN FETCH b.project p
+    LEFT JOIN FETCH p.owner
+    WHERE c.id IN :ids
+""")
+    List<ColumnEntity> findAllWithBoardByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Версия доски, в которой лежит колонка: меняется при любом изменении её задач
+    @Query("SELECT c.board.changeSeq FROM ColumnEntity c WHERE c.id = :columnId")
+    Optional<Long> findBoardChangeSeqByColumnId(@Param("columnId") UUID columnId);
 }
\ No newline at end of file
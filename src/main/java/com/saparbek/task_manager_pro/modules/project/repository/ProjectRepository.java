@@ -1,11 +1,65 @@
 package com.saparbek.task_manager_pro.modules.project.repository;
 
+import com.saparbek.task_manager_pro.modules.project.dto.project.ProjectVersionStamp;
 import com.saparbek.task_manager_pro.modules.project.model.Project;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ProjectRepository extends JpaRepository<Project, UUID> {
     public List<Project> findAllByCreatedBy(String username);
+
+    // Проекты, которые пользователь создал или в которых состоит, вместе с владельцем — одним запросом
+    @Query("""
+    SELECT DISTINCT p
+    FROM Project p
+    LEFT JOIN FETCH p.owner
+    WHERE p.createdBy = :email
+       OR p.id IN (SELECT up.project.id FROM UserProject up WHERE up.user.email = :email)
+""")
+    List<Project> findAllVisibleTo(@Param("email") String email);
+
+    // Для ETag: дешёвая версия вместо сборки ProjectResponse
+    @Query("""
+    SELECT COUNT(p) > 0
+    FROM Project p
+    WHERE p.id = :projectId
+      AND (p.createdBy = :email
+           OR EXISTS (SELECT 1 FROM UserProject up WHERE up.project = p AND up.user.email = :email))
+""")
+    boolean isAccessibleBy(@Param("projectId") UUID projectId, @Param("email") String email);
+
+    @Query("""
+    SELECT p.id AS projectId,
+           p.createdBy AS createdBy,
+           p.version AS version,
+           COUNT(b.id) AS boardCount,
+           COALESCE(SUM(b.changeSeq), 0) AS changeSeqSum,
+           p.overdueCount AS overdueCount
+    FROM Project p
+    LEFT JOIN Board b ON b.project = p
+    WHERE p.id = :id
+    GROUP BY p.id, p.createdBy, p.version, p.overdueCount
+""")
+    Optional<ProjectVersionStamp> findVersionStamp(@Param("id") UUID id);
+
+    @Query("""
+    SELECT p.id AS projectId,
+           p.createdBy AS createdBy,
+           p.version AS version,
+           COUNT(b.id) AS boardCount,
+           COALESCE(SUM(b.changeSeq), 0) AS changeSeqSum,
+           p.overdueCount AS overdueCount
+    FROM Project p
+    LEFT JOIN Board b ON b.project = p
+    WHERE p.createdBy = :email
+       OR p.id IN (SELECT up.project.id FROM UserProject up WHERE up.user.email = :email)
+    GROUP BY p.id, p.createdBy, p.version, p.overdueCount
+    ORDER BY p.id
+""")
+    List<ProjectVersionStamp> findVersionStampsVisibleTo(@Param("email") String email);
 }
@@ -1,56 +1,185 @@
 package com.saparbek.task_manager_pro.modules.project.repository;
 
-import com.saparbek.task_manager_pro.modules.project.model.Project;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskAssigneeRow;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskPriorityCount;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskProjectName;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskSummaryItem;
 import com.saparbek.task_manager_pro.modules.project.model.Task;
 import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
-import com.saparbek.task_manager_pro.modules.user.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task> {
     List<Task> findAllByColumnId(UUID columnId);
-    List<Task> findAllByDeadlineBeforeAndStatusNot(LocalDate deadline, TaskStatus status);
-    List<Task> findAllByDeadlineAndStatusNot(LocalDate deadline, TaskStatus status);
-    int countByColumnBoardProject(Project project);
 
-    @Query("SELECT t FROM Task t JOIN t.assignees a WHERE t.deadline = :today AND a.id = :userId")
-    List<Task> findByDeadlineAndAssignee(@Param("today") LocalDate today, @Param("userId") UUID userId);
+    @Query("SELECT t.version FROM Task t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    @Query("""
+    SELECT DISTINCT t
+    FROM Task t
+    LEFT JOIN FETCH t.assignees
+    WHERE t.column.board.id = :boardId
+""")
+    List<Task> findAllByBoardIdWithAssignees(@Param("boardId") UUID boardId);
+
+    @Query("""
+    SELECT DISTINCT t
+    FROM Task t
+    LEFT JOIN FETCH t.assignees
+    WHERE t.column.board.id = :boardId
+      AND t.changeSeq BETWEEN :from AND :to
+""")
+    List<Task> findChangedOnBoard(@Param("boardId") UUID boardId,
+                                  @Param("from") long from,
+                                  @Param("to") long to);
+
+
+    // Ключевая пагинация по id: только ещё не помеченные просроченные задачи
+    @Query("""
+    SELECT t.id
+    FROM Task t
+    WHERE t.overdue = false
+      AND t.status <> :done
+      AND t.deadline < :today
+      AND t.id > :after
+    ORDER BY t.id
+""")
+    List<UUID> findNewlyOverdueIds(
+            @Param("done") TaskStatus done,
+            @Param("today") LocalDate today,
+            @Param("after") UUID after,
+            Pageable pageable
+    );
+
+    // Возвращает только реально изменённые строки: параллельный проход другого инстанса
+    // или задача, закрытая после выборки id, в счётчики не попадут
+    @Query(value = """
+    UPDATE task
+    SET overdue = true
+    WHERE id IN (:ids)
+      AND overdue = false
+      AND status <> 'DONE'
+    RETURNING id
+""", nativeQuery = true)
+    List<UUID> markOverdue(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+    SELECT DISTINCT t
+    FROM Task t
+    LEFT JOIN FETCH t.assignees
+    WHERE t.id IN :ids
+""")
+    List<Task> findAllForNotificationByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Keyset-страница id: без OFFSET, по первичному ключу
+    @Query("SELECT t.id FROM Task t WHERE t.id > :after ORDER BY t.id")
+    List<UUID> findIdsAfter(@Param("after") UUID after, Pageable pageable);
+
+    @Query("""
+    SELECT t.id
+    FROM Task t
+    JOIN t.assignees a
+    WHERE a.id = :userId
+      AND t.id > :after
+    ORDER BY t.id
+""")
+    List<UUID> findIdsByAssigneeAfter(@Param("userId") UUID userId, @Param("after") UUID after, Pageable pageable);
 
-    List<Task> findAllByAssigneesContaining(User user);
+    // Вторая фаза страницы: задачи с исполнителями одним запросом (column нужен только id — берём из FK)
+    @Query("""
+    SELECT DISTINCT t
+    FROM Task t
+    LEFT JOIN FETCH t.assignees
+    WHERE t.id IN :ids
+""")
+    List<Task> findAllWithAssigneesByIdIn(@Param("ids") Collection<UUID> ids);
 
+    // Исполнители сразу для пачки задач — вместо ленивой загрузки assignees у каждой задачи
     @Query("""
-    SELECT COUNT(t)
+    SELECT t.id AS taskId, a.id AS userId, a.username AS username
     FROM Task t
     JOIN t.assignees a
-    WHERE t.status = :status
-      AND t.completedAt BETWEEN :start AND :end
-      AND a.id = :userId
-""")
-    long countByStatusAndCompletedAtBetweenAndAssigneeId(
-            @Param("status") TaskStatus status,
-            @Param("start") LocalDateTime start,
-            @Param("end") LocalDateTime end,
-            @Param("userId") UUID userId
+    WHERE t.id IN :ids
+""")
+    List<TaskAssigneeRow> findAssigneesByTaskIds(@Param("ids") Collection<UUID> ids);
+
+    // Задачи для пакетной операции: колонка, доска, проект и исполнители — одним запросом
+    @Query("""
+    SELECT DISTINCT t
+    FROM Task t
+    JOIN FETCH t.column c
+    JOIN FETCH c.board b
+    JOIN FETCH b.project p
+    LEFT JOIN FETCH p.owner
+    LEFT JOIN FETCH t.assignees
+    WHERE t.id IN :ids
+""")
+    List<Task> findAllForBatchByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("""
+    SELECT t.id AS taskId, p.name AS projectName
+    FROM Task t
+    JOIN t.column c
+    JOIN c.board b
+    JOIN b.project p
+    WHERE t.id IN :ids
+""")
+    List<TaskProjectName> findProjectNamesByTaskIds(@Param("ids") Collection<UUID> ids);
+
+    // Для сводки: просроченные задачи исполнителя, самые давние первыми
+    @Query("""
+    SELECT t.id AS id, t.title AS title, t.status AS status, t.priority AS priority, t.deadline AS deadline
+    FROM Task t
+    JOIN t.assignees a
+    WHERE a.id = :userId
+      AND t.overdue = true
+      AND t.status <> :done
+    ORDER BY t.deadline, t.id
+""")
+    List<TaskSummaryItem> findOverdueForSummary(
+            @Param("userId") UUID userId,
+            @Param("done") TaskStatus done,
+            Pageable pageable
     );
 
+    // Для сводки: ближайшие дедлайны незакрытых задач исполнителя
     @Query("""
-    SELECT COUNT(t)
+    SELECT t.id AS id, t.title AS title, t.status AS status, t.priority AS priority, t.deadline AS deadline
     FROM Task t
     JOIN t.assignees a
-    WHERE t.status <> :status
-      AND t.createdAt < :before
-      AND a.id = :userId
-""")
-    long countByStatusNotAndCreatedAtBeforeAndAssigneeId(
-            @Param("status") TaskStatus status,
-            @Param("before") LocalDateTime before,
-            @Param("userId") UUID userId
+    WHERE a.id = :userId
+      AND t.deadline >= :today
+      AND t.status <> :done
+    ORDER BY t.deadline, t.id
+""")
+    List<TaskSummaryItem> findNearestForSummary(
+            @Param("userId") UUID userId,
+            @Param("done") TaskStatus done,
+            @Param("today") LocalDate today,
+            Pageable pageable
     );
+
+    @Query("""
+    SELECT t.priority AS priority, COUNT(t) AS count
+    FROM Task t
+    JOIN t.assignees a
+    WHERE a.id = :userId
+    GROUP BY t.priority
+""")
+    List<TaskPriorityCount> countByPriorityForAssignee(@Param("userId") UUID userId);
+
+
+    @Query("SELECT t FROM Task t JOIN t.assignees a WHERE t.deadline = :today AND a.id = :userId")
+    List<Task> findByDeadlineAndAssignee(@Param("today") LocalDate today, @Param("userId") UUID userId);
 }
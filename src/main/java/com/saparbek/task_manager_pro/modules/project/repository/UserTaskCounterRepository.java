@@ -0,0 +1,9 @@
+package com.saparbek.task_manager_pro.modules.project.repository;
+
+import com.saparbek.task_manager_pro.modules.project.model.UserTaskCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface UserTaskCounterRepository extends JpaRepository<UserTaskCounter, UUID> {
+}
@@ -0,0 +1,167 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import com.saparbek.task_manager_pro.modules.project.dto.board.BoardChangesResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.board.BoardTombstoneResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.column.ColumnResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import com.saparbek.task_manager_pro.modules.project.model.Board;
+import com.saparbek.task_manager_pro.modules.project.model.BoardTombstone;
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEntityType;
+import com.saparbek.task_manager_pro.modules.project.repository.BoardRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.BoardTombstoneRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.ColumnRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+// Номера изменений доски и delta-sync: клиент докачивает только то, что изменилось после since
+@Slf4j
+@Service
+public class BoardChangeService {
+
+    private final BoardRepository boardRepository;
+    private final ColumnRepository columnRepository;
+    private final TaskRepository taskRepository;
+    private final BoardTombstoneRepository tombstoneRepository;
+    private final int tombstoneRetentionDays;
+
+    public BoardChangeService(BoardRepository boardRepository,
+                              ColumnRepository columnRepository,
+                              TaskRepository taskRepository,
+                              BoardTombstoneRepository tombstoneRepository,
+                              @Value("${board.changes.tombstone-retention-days:30}") int tombstoneRetentionDays) {
+        this.boardRepository = boardRepository;
+        this.columnRepository = columnRepository;
+        this.taskRepository = taskRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.tombstoneRetentionDays = tombstoneRetentionDays;
+    }
+
+    // Следующий номер изменения доски; блокировка строки доски держится до коммита вызывающей транзакции
+    @Transactional(Transactional.TxType.MANDATORY)
+    public long nextSeq(UUID boardId) {
+        boardRepository.incrementChangeSeq(boardId);
+        return boardRepository.findChangeSeq(boardId)
+                .orElseThrow(() -> new RuntimeException("Board not found"));
+    }
+
+    // По номеру на каждую доску; строки досок блокируются в порядке id, как в TaskBatchService, — без deadlock
+    @Transactional(Transactional.TxType.MANDATORY)
+    public Map<UUID, Long> nextSeqs(Collection<UUID> boardIds) {
+        Map<UUID, Long> seqs = new LinkedHashMap<>();
+        for (UUID boardId : new TreeSet<>(boardIds)) {
+            seqs.put(boardId, nextSeq(boardId));
+        }
+        return seqs;
+    }
+
+    // Диапазон из count номеров; возвращает первый, остальные идут подряд за ним
+    @Transactional(Transactional.TxType.MANDATORY)
+    public long reserveSeqs(UUID boardId, int count) {
+        boardRepository.incrementChangeSeqBy(boardId, count);
+        long last = boardRepository.findChangeSeq(boardId)
+                .orElseThrow(() -> new RuntimeException("Board not found"));
+        return last - count + 1;
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordDeletions(List<BoardTombstone> tombstones) {
+        tombstoneRepository.saveAll(tombstones);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public long recordDeletion(UUID boardId, BoardEntityType entityType, UUID entityId) {
+        return recordDeletion(boardId, entityType, entityId, nextSeq(boardId));
+    }
+
+    // Номер уже взят заранее (например, через nextSeqs)
+    @Transactional(Transactional.TxType.MANDATORY)
+    public long recordDeletion(UUID boardId, BoardEntityType entityType, UUID entityId, long seq) {
+        tombstoneRepository.save(BoardTombstone.builder()
+                .boardId(boardId)
+                .entityType(entityType)
+                .entityId(entityId)
+                .changeSeq(seq)
+                .deletedAt(LocalDateTime.now())
+                .build());
+        return seq;
+    }
+
+    @Transactional
+    public BoardChangesResponse getChanges(UUID boardId, long since) {
+        Board board = boardRepository.findById(boardId)
+                .orElseThrow(() -> new RuntimeException("Board not found"));
+
+        // Верхняя граница фиксируется до выборки: всё, что закоммитят позже, придёт следующим запросом
+        long current = board.getChangeSeq();
+        BoardChangesResponse.BoardChangesResponseBuilder response = BoardChangesResponse.builder()
+                .boardId(boardId)
+                .since(since)
+                .changeSeq(current);
+
+        if (since < board.getPrunedSeq() || since > current) {
+            return response
+                    .resetRequired(true)
+                    .columns(List.of())
+                    .tasks(List.of())
+                    .deleted(List.of())
+                    .build();
+        }
+        if (since == current) {
+            return response
+                    .columns(List.of())
+                    .tasks(List.of())
+                    .deleted(List.of())
+                    .build();
+        }
+
+        List<ColumnResponse> columns = columnRepository.findAllByBoardIdAndChangeSeqBetween(boardId, since + 1, current)
+                .stream()
+                .map(column -> ColumnResponse.builder()
+                        .id(column.getId())
+                        .name(column.getName())
+                        .boardId(boardId)
+                        .build())
+                .toList();
+
+        List<TaskResponse> tasks = taskRepository.findChangedOnBoard(boardId, since + 1, current)
+                .stream()
+                .map(TaskResponse::from)
+                .toList();
+
+        List<BoardTombstoneResponse> deleted = tombstoneRepository
+                .findAllByBoardIdAndChangeSeqBetweenOrderByChangeSeq(boardId, since + 1, current)
+                .stream()
+                .map(BoardTombstoneResponse::from)
+                .toList();
+
+        return response
+                .columns(columns)
+                .tasks(tasks)
+                .deleted(deleted)
+                .build();
+    }
+
+    // 🧹 Старые tombstones удаляем; клиентам с since ниже prunedSeq отвечаем resetRequired
+    @Scheduled(cron = "${board.changes.purge-cron:0 45 3 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+        int boards = boardRepository.raisePrunedSeq(cutoff);
+        int deleted = tombstoneRepository.deleteAllDeletedBefore(cutoff);
+        if (deleted > 0) {
+            log.info("🧹 Удалено {} tombstones на {} досках (старше {} дн.)", deleted, boards, tombstoneRetentionDays);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import com.saparbek.task_manager_pro.modules.project.dto.board.BoardEvent;
+import com.saparbek.task_manager_pro.modules.project.model.Board;
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEventType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Изменения доски уходят только подписчикам этой доски, а не всем клиентам
+@Service
+@RequiredArgsConstructor
+public class BoardEventPublisher {
+
+    public static final String BOARD_TOPIC = "/topic/projects/%s/boards/%s";
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    public void publish(BoardEventType type, Board board, UUID entityId, long changeSeq, Object payload) {
+        UUID projectId = board.getProject().getId();
+        BoardEvent event = BoardEvent.builder()
+                .type(type)
+                .projectId(projectId)
+                .boardId(board.getId())
+                .entityId(entityId)
+                .changeSeq(changeSeq)
+                .payload(payload)
+                .timestamp(LocalDateTime.now())
+                .build();
+        String destination = BOARD_TOPIC.formatted(projectId, board.getId());
+
+        // Внутри транзакции — только после коммита, чтобы клиент не увидел откатившееся изменение
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    messagingTemplate.convertAndSend(destination, event);
+                }
+            });
+        } else {
+            messagingTemplate.convertAndSend(destination, event);
+        }
+    }
+}
@@ -2,16 +2,28 @@ package com.saparbek.task_manager_pro.modules.project.service;
 
 import com.saparbek.task_manager_pro.modules.project.dto.board.BoardRequest;
 import com.saparbek.task_manager_pro.modules.project.dto.board.BoardResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.board.BoardSnapshotResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.column.ColumnResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
 import com.saparbek.task_manager_pro.modules.project.model.Board;
 import com.saparbek.task_manager_pro.modules.project.model.ColumnEntity;
 import com.saparbek.task_manager_pro.modules.project.model.Project;
+import com.saparbek.task_manager_pro.modules.project.model.Task;
 import com.saparbek.task_manager_pro.modules.project.repository.BoardRepository;
 import com.saparbek.task_manager_pro.modules.project.repository.ColumnRepository;
 import com.saparbek.task_manager_pro.modules.project.repository.ProjectRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
+import com.saparbek.task_manager_pro.modules.user.dto.UserResponse;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -22,6 +34,20 @@ public class BoardService {
     private final BoardRepository boardRepository;
     private final ProjectRepository projectRepository;
     private final ColumnRepository columnRepository;
+    private final TaskRepository taskRepository;
+
+    // Доски не переименовываются: список меняется только составом
+    public String getBoardsEtag(UUID projectId) {
+        String ids = boardRepository.findIdsByProjectId(projectId).toString();
+        return "boards-" + projectId + "-" + DigestUtils.md5DigestAsHex(ids.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Версия доски — её номер изменения: растёт при любом изменении колонок и задач
+    public String getBoardEtag(UUID boardId) {
+        long changeSeq = boardRepository.findChangeSeq(boardId)
+                .orElseThrow(() -> new RuntimeException("Board not found"));
+        return "board-" + boardId + "-s" + changeSeq;
+    }
 
     public List<BoardResponse> getBoardsByProjectId(UUID projectId) {
         return boardRepository.findAllByProjectId(projectId)
@@ -35,6 +61,49 @@ public class BoardService {
                 ).collect(Collectors.toList());
     }
 
+    // 📦 Доска целиком за один запрос: доска, колонки, задачи и исполнители (3 SQL-запроса)
+    @Transactional
+    public BoardSnapshotResponse getBoardSnapshot(UUID boardId) {
+        Board board = boardRepository.findWithProjectById(boardId)
+                .orElseThrow(() -> new RuntimeException("Board not found"));
+
+        List<ColumnResponse> columns = columnRepository.findAllByBoardId(boardId)
+                .stream()
+                .map(column -> ColumnResponse.builder()
+                        .id(column.getId())
+                        .name(column.getName())
+                        .boardId(boardId)
+                        .build())
+                .toList();
+
+        List<Task> tasks = taskRepository.findAllByBoardIdWithAssignees(boardId);
+
+        Map<UUID, UserResponse> assignees = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            for (User user : task.getAssignees()) {
+                assignees.computeIfAbsent(user.getId(), id -> new UserResponse(
+                        user.getId(),
+                        user.getEmail(),
+                        user.getUsername(),
+                        user.getAvatarUrl(),
+                        user.getRole()
+                ));
+            }
+        }
+
+        return BoardSnapshotResponse.builder()
+                .changeSeq(board.getChangeSeq())
+                .board(BoardResponse.builder()
+                        .id(board.getId())
+                        .name(board.getName())
+                        .projectId(board.getProject().getId())
+                        .createdAt(board.getCreatedAt())
+                        .build())
+                .columns(columns)
+                .tasks(tasks.stream().map(TaskResponse::from).toList())
+                .assignees(List.copyOf(assignees.values()))
+                .build();
+    }
 
     public BoardResponse createBoard(BoardRequest request) {
         Project project = projectRepository.findById(request.getProjectId())
@@ -6,8 +6,11 @@ import com.saparbek.task_manager_pro.modules.project.dto.column.ColumnRequest;
 import com.saparbek.task_manager_pro.modules.project.dto.column.ColumnResponse;
 import com.saparbek.task_manager_pro.modules.project.model.Board;
 import com.saparbek.task_manager_pro.modules.project.model.ColumnEntity;
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEntityType;
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEventType;
 import com.saparbek.task_manager_pro.modules.project.repository.BoardRepository;
 import com.saparbek.task_manager_pro.modules.project.repository.ColumnRepository;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -22,7 +25,11 @@ public class ColumnService {
     private final ColumnRepository columnRepository;
     private final BoardRepository boardRepository;
     private final ActivityLogService activityLogService;
+    private final BoardEventPublisher boardEventPublisher;
+    private final BoardChangeService boardChangeService;
+    private final TaskCounterService taskCounterService;
 
+    @Transactional
     public ColumnResponse createColumn(ColumnRequest request) {
         Board board = boardRepository.findById(request.getBoardId())
                 .orElseThrow(() -> new RuntimeException("Board not found"));
@@ -30,6 +37,7 @@ public class ColumnService {
         ColumnEntity column = ColumnEntity.builder()
                 .name(request.getName())
                 .board(board)
+                .changeSeq(boardChangeService.nextSeq(board.getId()))
                 .build();
 
         ColumnEntity saved = columnRepository.save(column);
@@ -43,11 +51,20 @@ public class ColumnService {
                 board.getProject().getId()
         );
 
-        return ColumnResponse.builder()
+        ColumnResponse response = ColumnResponse.builder()
                 .id(saved.getId())
                 .name(saved.getName())
                 .boardId(board.getId())
                 .build();
+        boardEventPublisher.publish(BoardEventType.COLUMN_CREATED, board, saved.getId(), saved.getChangeSeq(), response);
+        return response;
+    }
+
+    // Колонки доски меняются только вместе с её номером изменения
+    public String getColumnsEtag(UUID boardId) {
+        long changeSeq = boardRepository.findChangeSeq(boardId)
+                .orElseThrow(() -> new RuntimeException("Board not found"));
+        return "columns-" + boardId + "-s" + changeSeq;
     }
 
     public List<ColumnResponse> getColumnsByBoardId(UUID boardId) {
@@ -61,11 +78,13 @@ public class ColumnService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional
     public ColumnResponse updateColumn(UUID id, String name) {
         ColumnEntity column = columnRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Column not found"));
 
         column.setName(name);
+        column.setChangeSeq(boardChangeService.nextSeq(column.getBoard().getId()));
         ColumnEntity updated = columnRepository.save(column);
 
         activityLogService.logEvent(
@@ -76,16 +95,20 @@ public class ColumnService {
                 column.getBoard().getProject().getId()
         );
 
-        return ColumnResponse.builder()
+        ColumnResponse response = ColumnResponse.builder()
                 .id(updated.getId())
                 .name(updated.getName())
                 .boardId(updated.getBoard().getId())
                 .build();
+        boardEventPublisher.publish(BoardEventType.COLUMN_UPDATED, updated.getBoard(), updated.getId(), updated.getChangeSeq(), response);
+        return response;
     }
 
+    @Transactional
     public void deleteColumn(UUID id) {
         ColumnEntity column = columnRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Column not found"));
+        taskCounterService.onColumnDeleted(id);
         columnRepository.deleteById(id);
         // 🛑 Логируем удаление колонки
         activityLogService.logEvent(
@@ -95,6 +118,9 @@ public class ColumnService {
                 null,
                 column.getBoard().getProject().getId()
         );
+        // Задачи колонки удаляются каскадом — клиенту хватает одного события и одного tombstone
+        long seq = boardChangeService.recordDeletion(column.getBoard().getId(), BoardEntityType.COLUMN, column.getId());
+        boardEventPublisher.publish(BoardEventType.COLUMN_DELETED, column.getBoard(), column.getId(), seq, null);
     }
 
     public void createDefaultColumns(Board board) {
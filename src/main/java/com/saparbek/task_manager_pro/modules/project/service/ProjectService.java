@@ -4,25 +4,27 @@ import com.saparbek.task_manager_pro.modules.activity.model.ActivityEvent;
 import com.saparbek.task_manager_pro.modules.activity.service.ActivityLogService;
 import com.saparbek.task_manager_pro.modules.project.dto.project.ProjectRequest;
 import com.saparbek.task_manager_pro.modules.project.dto.project.ProjectResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.project.ProjectVersionStamp;
 import com.saparbek.task_manager_pro.modules.project.model.Project;
 import com.saparbek.task_manager_pro.modules.project.model.enums.ProjectStatus;
 import com.saparbek.task_manager_pro.modules.project.model.UserProject;
 import com.saparbek.task_manager_pro.modules.project.repository.ProjectMemberRepository;
 import com.saparbek.task_manager_pro.modules.project.repository.ProjectRepository;
-import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
 import com.saparbek.task_manager_pro.modules.user.model.Role;
 import com.saparbek.task_manager_pro.modules.user.model.User;
 import com.saparbek.task_manager_pro.modules.user.repository.UserRepository;
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -32,23 +34,40 @@ public class ProjectService {
     private final UserRepository userRepository;
     private final ProjectMemberRepository projectMemberRepository;
     private final ActivityLogService activityLogService;
-    private final TaskRepository taskRepository;
+    private final TaskCounterService taskCounterService;
 
     public List<ProjectResponse> getProjectsByUser(String email) {
-        List<Project> ownedProjects = projectRepository.findAllByCreatedBy(email);
-
-        List<UserProject> userProjects = projectMemberRepository.findAllByUserEmail(email);
-        List<Project> memberProjects = userProjects.stream()
-                .map(UserProject::getProject)
+        // Счётчики задач хранятся в самой строке проекта — агрегировать задачи не нужно
+        return projectRepository.findAllVisibleTo(email).stream()
+                .map(this::mapToResponse)
                 .toList();
+    }
 
-        // Объединяем, убираем дубликаты (по id)
-        Set<UUID> seen = new HashSet<>();
-        List<Project> all = Stream.concat(ownedProjects.stream(), memberProjects.stream())
-                .filter(p -> seen.add(p.getId()))
-                .toList();
+    // ETag списка проектов: меняется при изменении любого проекта, его досок, состава или числа просроченных задач
+    public String getProjectsEtag(String email) {
+        StringBuilder stamp = new StringBuilder();
+        for (ProjectVersionStamp project : projectRepository.findVersionStampsVisibleTo(email)) {
+            stamp.append('|').append(formatStamp(project));
+        }
+        return "projects-" + DigestUtils.md5DigestAsHex(stamp.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getProjectEtag(UUID id, String email) {
+        ProjectVersionStamp project = projectRepository.findVersionStamp(id)
+                .orElseThrow(() -> new RuntimeException("Project not found"));
 
-        return all.stream().map(this::mapToResponse).toList();
+        boolean isOwner = email.equals(project.getCreatedBy());
+        if (!isOwner && !projectMemberRepository.existsByUserEmailAndProjectId(email, id)) {
+            throw new RuntimeException("Access denied");
+        }
+
+        return "project-" + formatStamp(project);
+    }
+
+    private String formatStamp(ProjectVersionStamp project) {
+        return project.getProjectId() + "-v" + project.getVersion()
+                + "-b" + project.getBoardCount() + "-s" + project.getChangeSeqSum()
+                + "-o" + project.getOverdueCount();
     }
 
     public ProjectResponse getProjectByIdAndUser(UUID id, String email) {
@@ -93,6 +112,7 @@ public class ProjectService {
         return mapToResponse(projectRepository.save(project));
     }
 
+    @Transactional
     public void deleteProject(UUID id, String email) {
         Project project = projectRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
@@ -101,6 +121,7 @@ public class ProjectService {
             throw new RuntimeException("Access denied");
         }
 
+        taskCounterService.onProjectDeleted(id);
         projectRepository.delete(project);
     }
 
@@ -169,7 +190,6 @@ public class ProjectService {
 
 
     private ProjectResponse mapToResponse(Project project) {
-        int taskCount = taskRepository.countByColumnBoardProject(project);
         return ProjectResponse.builder()
                 .id(project.getId())
                 .name(project.getName())
@@ -178,9 +198,12 @@ public class ProjectService {
                 .ownerUsername(project.getOwner() != null ? project.getOwner().getUsername() : null)
                 .createdAt(project.getCreatedAt())
                 .status(project.getStatus() != null ? project.getStatus().name().toLowerCase() : "active")
-                .taskCount(taskCount)
+                .taskCount(project.getTaskCount())
+                .todoCount(project.getTodoCount())
+                .inProgressCount(project.getInProgressCount())
+                .doneCount(project.getDoneCount())
+                .overdueCount(project.getOverdueCount())
                 .build();
     }
 
 }
-
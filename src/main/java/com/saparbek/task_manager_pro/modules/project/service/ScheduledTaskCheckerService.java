@@ -1,5 +1,9 @@
 package com.saparbek.task_manager_pro.modules.project.service;
 
+import com.saparbek.task_manager_pro.modules.notification.dto.PendingReminder;
+import com.saparbek.task_manager_pro.modules.notification.model.ReminderDelivery;
+import com.saparbek.task_manager_pro.modules.notification.model.ReminderKind;
+import com.saparbek.task_manager_pro.modules.notification.repository.ReminderDeliveryRepository;
 import com.saparbek.task_manager_pro.modules.notification.service.MailService;
 import com.saparbek.task_manager_pro.modules.notification.service.NotificationService;
 import com.saparbek.task_manager_pro.modules.project.model.Task;
@@ -8,12 +12,15 @@ import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
 import com.saparbek.task_manager_pro.modules.user.model.User;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
@@ -22,50 +29,112 @@ public class ScheduledTaskCheckerService {
     private final TaskRepository taskRepository;
     private final MailService mailService;
     private final NotificationService notificationService;
+    private final ReminderDeliveryRepository reminderDeliveryRepository;
+    private final TaskCounterService taskCounterService;
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    @Value("${scheduler.overdue.batch-size:500}")
+    private int overdueBatchSize;
 
     @Scheduled(cron = "0 */2 * * * *")
     @Transactional
     public void checkOverdueTasks() {
-        List<Task> overdueTasks = taskRepository.findAllByDeadlineBeforeAndStatusNot(
-                LocalDate.now(), TaskStatus.DONE
-        );
+        LocalDate today = LocalDate.now();
+        UUID after = FIRST_ID;
+        Map<User, List<Task>> overdueByRecipient = new LinkedHashMap<>();
 
-        for (Task task : overdueTasks) {
-            if (!task.isOverdue()) {
-                task.setOverdue(true);
-                mailService.sendOverdueNotification(task);
-
-                for (User assignee : task.getAssignees()) {
-                    notificationService.notifyUser(
-                            assignee,
-                            "⏰ Просроченная задача",
-                            task.getTitle()
-                    );
-                }
+        // Пачками по id: помечаем только новые просроченные задачи, уже помеченные не трогаем
+        while (true) {
+            List<UUID> ids = taskRepository.findNewlyOverdueIds(
+                    TaskStatus.DONE, today, after, PageRequest.of(0, overdueBatchSize)
+            );
+            if (ids.isEmpty()) {
+                break;
             }
+
+            // Счётчики и уведомления — только по строкам, которые UPDATE действительно изменил
+            List<UUID> marked = taskRepository.markOverdue(ids);
+            if (!marked.isEmpty()) {
+                taskCounterService.onMarkedOverdue(marked);
+                notifyOverdue(marked, overdueByRecipient);
+            }
+
+            after = ids.get(ids.size() - 1);
         }
 
-        taskRepository.saveAll(overdueTasks);
+        // Одно письмо-дайджест на пользователя за весь проход
+        mailService.sendOverdueDigests(overdueByRecipient);
+    }
+
+    private void notifyOverdue(List<UUID> newlyOverdueIds, Map<User, List<Task>> overdueByRecipient) {
+        for (Task task : taskRepository.findAllForNotificationByIdIn(newlyOverdueIds)) {
+            for (User assignee : task.getAssignees()) {
+                overdueByRecipient.computeIfAbsent(assignee, user -> new ArrayList<>()).add(task);
+                notificationService.notifyUser(
+                        assignee,
+                        "⏰ Просроченная задача",
+                        task.getTitle()
+                );
+            }
+        }
     }
 
     @Scheduled(cron = "0 */2 * * * *")
     @Transactional
     public void notifyTodayDeadlines() {
-        List<Task> todayDeadlineTasks = taskRepository.findAllByDeadlineAndStatusNot(
-                LocalDate.now(), TaskStatus.DONE
+        LocalDate today = LocalDate.now();
+
+        // Только пары (задача, исполнитель), которым сегодня ещё не напоминали
+        List<PendingReminder> pending = reminderDeliveryRepository.findPendingDeadlineReminders(
+                today, TaskStatus.DONE, ReminderKind.DEADLINE_TODAY
         );
+        if (pending.isEmpty()) {
+            return;
+        }
 
-        for (Task task : todayDeadlineTasks) {
-            mailService.sendUpcomingDeadlineNotification(task);
+        Map<UUID, Set<UUID>> recipientsByTask = new HashMap<>();
+        for (PendingReminder reminder : pending) {
+            recipientsByTask.computeIfAbsent(reminder.getTaskId(), id -> new HashSet<>())
+                    .add(reminder.getRecipientId());
+        }
 
-            for (User assignee : task.getAssignees()) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ReminderDelivery> deliveries = new ArrayList<>();
+        Map<User, List<Task>> tasksByRecipient = new LinkedHashMap<>();
+
+        for (Task task : taskRepository.findAllForNotificationByIdIn(recipientsByTask.keySet())) {
+            Set<UUID> recipientIds = recipientsByTask.get(task.getId());
+            List<User> recipients = task.getAssignees().stream()
+                    .filter(assignee -> recipientIds.contains(assignee.getId()))
+                    .toList();
+
+            for (User assignee : recipients) {
+                tasksByRecipient.computeIfAbsent(assignee, user -> new ArrayList<>()).add(task);
                 notificationService.notifyUser(
                         assignee,
                         "📅 Сегодня дедлайн",
                         task.getTitle()
                 );
+                deliveries.add(ReminderDelivery.builder()
+                        .taskId(task.getId())
+                        .recipientId(assignee.getId())
+                        .kind(ReminderKind.DEADLINE_TODAY)
+                        .reminderDate(today)
+                        .deliveredAt(now)
+                        .build());
             }
         }
+
+        mailService.sendUpcomingDeadlineDigests(tasksByRecipient);
+        reminderDeliveryRepository.saveAll(deliveries);
+    }
+
+    // Журнал нужен только за текущий день — старые записи удаляем раз в сутки
+    @Scheduled(cron = "0 0 3 * * *")
+    @Transactional
+    public void purgeReminderLedger() {
+        reminderDeliveryRepository.deleteAllByReminderDateBefore(LocalDate.now());
     }
 
 }
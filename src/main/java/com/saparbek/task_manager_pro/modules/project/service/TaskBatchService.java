@@ -0,0 +1,432 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import com.saparbek.task_manager_pro.modules.activity.model.ActivityEvent;
+import com.saparbek.task_manager_pro.modules.activity.model.ActivityLog;
+import com.saparbek.task_manager_pro.modules.activity.service.ActivityLogService;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskBatchItemResult;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskBatchOperation;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskBatchRequest;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskBatchResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskRequest;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import com.saparbek.task_manager_pro.modules.project.exception.TaskBatchConflictException;
+import com.saparbek.task_manager_pro.modules.project.model.Board;
+import com.saparbek.task_manager_pro.modules.project.model.BoardTombstone;
+import com.saparbek.task_manager_pro.modules.project.model.ColumnEntity;
+import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEntityType;
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEventType;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskBatchItemStatus;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskBatchOperationType;
+import com.saparbek.task_manager_pro.modules.project.repository.ColumnRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
+import com.saparbek.task_manager_pro.modules.project.service.TaskCounterService.Changes;
+import com.saparbek.task_manager_pro.modules.project.service.TaskCounterService.Contribution;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import com.saparbek.task_manager_pro.modules.user.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Пакет операций над задачами в одной транзакции: колонки, задачи и пользователи читаются
+// одним запросом каждый, номера изменений резервируются диапазоном на доску,
+// INSERT/UPDATE/DELETE уходят JDBC-пачками (hibernate.jdbc.batch_size)
+@Service
+public class TaskBatchService {
+
+    private final TaskRepository taskRepository;
+    private final ColumnRepository columnRepository;
+    private final UserRepository userRepository;
+    private final ActivityLogService activityLogService;
+    private final BoardEventPublisher boardEventPublisher;
+    private final BoardChangeService boardChangeService;
+    private final TaskCounterService taskCounterService;
+    private final int maxOperations;
+
+    public TaskBatchService(TaskRepository taskRepository,
+                            ColumnRepository columnRepository,
+                            UserRepository userRepository,
+                            ActivityLogService activityLogService,
+                            BoardEventPublisher boardEventPublisher,
+                            BoardChangeService boardChangeService,
+                            TaskCounterService taskCounterService,
+                            @Value("${tasks.batch.max-operations:500}") int maxOperations) {
+        this.taskRepository = taskRepository;
+        this.columnRepository = columnRepository;
+        this.userRepository = userRepository;
+        this.activityLogService = activityLogService;
+        this.boardEventPublisher = boardEventPublisher;
+        this.boardChangeService = boardChangeService;
+        this.taskCounterService = taskCounterService;
+        this.maxOperations = maxOperations;
+    }
+
+    // Проверенная операция: task — существующая задача, target — колонка, куда она попадёт
+    private record Planned(int index, TaskBatchOperation op, Task task, ColumnEntity oldColumn, ColumnEntity target) {
+    }
+
+    @Transactional
+    public TaskBatchResponse execute(TaskBatchRequest request, String username) {
+        List<TaskBatchOperation> operations = request.getOperations();
+        if (operations == null || operations.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No operations");
+        }
+        if (operations.size() > maxOperations) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Too many operations, max " + maxOperations);
+        }
+
+        // 1️⃣ Все нужные строки — тремя запросами на весь пакет
+        Set<UUID> taskIds = new HashSet<>();
+        Set<UUID> columnIds = new HashSet<>();
+        Set<UUID> userIds = new HashSet<>();
+        for (TaskBatchOperation op : operations) {
+            if (op == null) {
+                continue;
+            }
+            if (op.getTaskId() != null) {
+                taskIds.add(op.getTaskId());
+            }
+            if (op.getColumnId() != null) {
+                columnIds.add(op.getColumnId());
+            }
+            if (op.getTask() != null) {
+                if (op.getTask().getColumnId() != null) {
+                    columnIds.add(op.getTask().getColumnId());
+                }
+                if (op.getTask().getAssigneeIds() != null) {
+                    userIds.addAll(op.getTask().getAssigneeIds());
+                }
+            }
+        }
+        Map<UUID, Task> tasks = taskIds.isEmpty() ? Map.of() : taskRepository.findAllForBatchByIdIn(taskIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        Map<UUID, ColumnEntity> columns = columnIds.isEmpty() ? Map.of() : columnRepository.findAllWithBoardByIdIn(columnIds).stream()
+                .collect(Collectors.toMap(ColumnEntity::getId, Function.identity()));
+        Map<UUID, User> users = userIds.isEmpty() ? Map.of() : userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // 2️⃣ Проверка всех операций до первой записи
+        TaskBatchItemResult[] results = new TaskBatchItemResult[operations.size()];
+        List<Planned> planned = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            TaskBatchOperation op = operations.get(i);
+            Object outcome = plan(i, op, tasks, columns, seen);
+            if (outcome instanceof Planned p) {
+                planned.add(p);
+            } else {
+                results[i] = (TaskBatchItemResult) outcome;
+            }
+        }
+
+        int failed = operations.size() - planned.size();
+        if (request.isAtomic() && failed > 0) {
+            for (Planned p : planned) {
+                results[p.index()] = result(p.index(), p.op(), TaskBatchItemStatus.SKIPPED, p.op().getTaskId(), null, null);
+            }
+            return TaskBatchResponse.builder()
+                    .succeeded(0)
+                    .failed(operations.size())
+                    .results(List.of(results))
+                    .build();
+        }
+
+        // 3️⃣ Номера изменений: один UPDATE на доску, доски — в одном порядке, чтобы не ловить deadlock
+        Map<UUID, Integer> seqCounts = new TreeMap<>();
+        for (Planned p : planned) {
+            if (p.target() != null) {
+                seqCounts.merge(p.target().getBoard().getId(), 1, Integer::sum);
+            }
+            if (p.oldColumn() != null && (p.target() == null || leavesBoard(p))) {
+                seqCounts.merge(p.oldColumn().getBoard().getId(), 1, Integer::sum);
+            }
+        }
+        Map<UUID, Long> nextSeq = new HashMap<>();
+        seqCounts.forEach((boardId, count) -> nextSeq.put(boardId, boardChangeService.reserveSeqs(boardId, count)));
+
+        // 4️⃣ Изменения в памяти; Hibernate отправит их пачками при flush
+        LocalDateTime now = LocalDateTime.now();
+        List<Task> created = new ArrayList<>();
+        List<Task> deleted = new ArrayList<>();
+        List<BoardTombstone> tombstones = new ArrayList<>();
+        Map<Integer, Long> deletionSeqs = new HashMap<>();
+        Changes counters = new Changes(); // все сдвиги счётчиков пакета — одной записью в конце
+
+        for (int k = 0; k < planned.size(); k++) {
+            Planned p = planned.get(k);
+            TaskRequest payload = p.op().getTask();
+            switch (p.op().getType()) {
+                case CREATE -> {
+                    Task task = Task.builder()
+                            .title(payload.getTitle())
+                            .description(payload.getDescription())
+                            .priority(payload.getPriority())
+                            .status(payload.getStatus())
+                            .deadline(payload.getDeadline())
+                            .createdAt(now)
+                            .column(p.target())
+                            .assignees(resolveAssignees(payload.getAssigneeIds(), users))
+                            .changeSeq(takeSeq(nextSeq, p.target().getBoard()))
+                            .build();
+                    created.add(task);
+                    counters.add(Contribution.of(task));
+                    planned.set(k, new Planned(p.index(), p.op(), task, null, p.target()));
+                }
+                case UPDATE -> {
+                    Task task = p.task();
+                    counters.remove(Contribution.of(task));
+                    List<UUID> assigneeIds = payload.getAssigneeIds() != null ? payload.getAssigneeIds() : List.of();
+                    if (!sameAssignees(task, assigneeIds)) {
+                        task.setAssignees(resolveAssignees(assigneeIds, users));
+                    }
+                    task.setTitle(payload.getTitle());
+                    task.setDescription(payload.getDescription());
+                    task.setPriority(payload.getPriority());
+                    task.setDeadline(payload.getDeadline());
+                    TaskService.applyStatus(task, payload.getStatus());
+                    TaskService.refreshOverdue(task);
+                    moveTo(task, p, nextSeq, tombstones, deletionSeqs, now);
+                    counters.add(Contribution.of(task));
+                }
+                case MOVE -> {
+                    counters.remove(Contribution.of(p.task()));
+                    moveTo(p.task(), p, nextSeq, tombstones, deletionSeqs, now);
+                    counters.add(Contribution.of(p.task()));
+                }
+                case DELETE -> {
+                    Board board = p.oldColumn().getBoard();
+                    long seq = takeSeq(nextSeq, board);
+                    tombstones.add(tombstone(board, p.task().getId(), seq, now));
+                    deletionSeqs.put(p.index(), seq);
+                    deleted.add(p.task());
+                    counters.remove(Contribution.of(p.task()));
+                }
+            }
+        }
+
+        try {
+            taskRepository.saveAll(created);
+            taskRepository.deleteAll(deleted);
+            boardChangeService.recordDeletions(tombstones);
+            taskRepository.flush(); // версии в ответе — уже после UPDATE
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // UPDATE/DELETE ... WHERE version = ? не нашёл строку: задачу изменили после чтения.
+            // После сбоя flush транзакцию не продолжить — откатываем пакет и отвечаем по каждой операции
+            throw new TaskBatchConflictException(conflictResponse(planned, results, e));
+        }
+        taskCounterService.apply(counters);
+
+        // 5️⃣ Результаты, журнал (одной передачей) и события досок после коммита
+        List<ActivityLog> activity = new ArrayList<>();
+        for (Planned p : planned) {
+            Task task = p.task();
+            UUID taskId = task.getId();
+            TaskBatchOperationType type = p.op().getType();
+
+            if (type == TaskBatchOperationType.DELETE) {
+                Board board = p.oldColumn().getBoard();
+                activity.add(ActivityLogService.entry(ActivityEvent.TASK_DELETED, username, null, taskId, board.getProject().getId()));
+                boardEventPublisher.publish(BoardEventType.TASK_DELETED, board, taskId, deletionSeqs.get(p.index()), null);
+                results[p.index()] = result(p.index(), p.op(), TaskBatchItemStatus.OK, taskId, null, null);
+                continue;
+            }
+
+            Board board = p.target().getBoard();
+            UUID projectId = board.getProject().getId();
+            TaskResponse response = TaskResponse.from(task);
+            boolean moved = p.oldColumn() != null && !p.oldColumn().getId().equals(p.target().getId());
+
+            BoardEventType eventType;
+            if (type == TaskBatchOperationType.CREATE) {
+                activity.add(ActivityLogService.entry(ActivityEvent.TASK_CREATED, username, null, taskId, projectId));
+                eventType = BoardEventType.TASK_CREATED;
+            } else {
+                if (moved) {
+                    activity.add(ActivityLogService.entry(ActivityEvent.TASK_MOVED, username, null, taskId, projectId));
+                }
+                if (type == TaskBatchOperationType.UPDATE) {
+                    activity.add(ActivityLogService.entry(ActivityEvent.TASK_UPDATED, username, null, taskId, projectId));
+                }
+                eventType = moved ? BoardEventType.TASK_MOVED : BoardEventType.TASK_UPDATED;
+            }
+            boardEventPublisher.publish(eventType, board, taskId, task.getChangeSeq(), response);
+            if (moved && leavesBoard(p)) {
+                boardEventPublisher.publish(BoardEventType.TASK_DELETED, p.oldColumn().getBoard(), taskId, deletionSeqs.get(p.index()), null);
+            }
+            results[p.index()] = result(p.index(), p.op(), TaskBatchItemStatus.OK, taskId, response, null);
+        }
+        activityLogService.logEvents(activity);
+
+        return TaskBatchResponse.builder()
+                .succeeded(planned.size())
+                .failed(failed)
+                .results(List.of(results))
+                .build();
+    }
+
+    // Задача из исключения получает CONFLICT, остальные — SKIPPED; если Hibernate не назвал задачу,
+    // CONFLICT получают все операции над существующими задачами
+    private static TaskBatchResponse conflictResponse(List<Planned> planned, TaskBatchItemResult[] results,
+                                                      ObjectOptimisticLockingFailureException e) {
+        UUID conflictId = e.getIdentifier() instanceof UUID id && Task.class.getName().equals(e.getPersistentClassName())
+                ? id : null;
+        for (Planned p : planned) {
+            TaskBatchOperationType type = p.op().getType();
+            UUID taskId = type == TaskBatchOperationType.CREATE ? null : p.task().getId();
+            boolean conflicted = taskId != null && (conflictId == null || conflictId.equals(taskId));
+            results[p.index()] = conflicted
+                    ? result(p.index(), p.op(), TaskBatchItemStatus.CONFLICT, taskId, null, "Task was modified concurrently")
+                    : result(p.index(), p.op(), TaskBatchItemStatus.SKIPPED, taskId, null, null);
+        }
+        return TaskBatchResponse.builder()
+                .succeeded(0)
+                .failed(results.length)
+                .results(List.of(results))
+                .build();
+    }
+
+    // Planned — операцию можно выполнять, TaskBatchItemResult — причина отказа
+    private Object plan(int index, TaskBatchOperation op, Map<UUID, Task> tasks,
+                        Map<UUID, ColumnEntity> columns, Set<UUID> seen) {
+        if (op == null || op.getType() == null) {
+            return result(index, op, TaskBatchItemStatus.INVALID, null, null, "type is required");
+        }
+
+        TaskRequest payload = op.getTask();
+        if (op.getType() == TaskBatchOperationType.CREATE) {
+            if (payload == null) {
+                return result(index, op, TaskBatchItemStatus.INVALID, null, null, "task is required");
+            }
+            UUID columnId = payload.getColumnId() != null ? payload.getColumnId() : op.getColumnId();
+            if (columnId == null) {
+                return result(index, op, TaskBatchItemStatus.INVALID, null, null, "columnId is required");
+            }
+            ColumnEntity column = columns.get(columnId);
+            if (column == null) {
+                return result(index, op, TaskBatchItemStatus.NOT_FOUND, null, null, "Column not found");
+            }
+            return new Planned(index, op, null, null, column);
+        }
+
+        UUID taskId = op.getTaskId();
+        if (taskId == null) {
+            return result(index, op, TaskBatchItemStatus.INVALID, null, null, "taskId is required");
+        }
+        // Одна задача — одна операция в пакете, иначе версия из запроса теряет смысл
+        if (!seen.add(taskId)) {
+            return result(index, op, TaskBatchItemStatus.INVALID, taskId, null, "Task appears more than once in the batch");
+        }
+        Task task = tasks.get(taskId);
+        if (task == null) {
+            return result(index, op, TaskBatchItemStatus.NOT_FOUND, taskId, null, "Task not found");
+        }
+        Long version = op.getVersion() != null ? op.getVersion() : payload != null ? payload.getVersion() : null;
+        if (version != null && version != task.getVersion()) {
+            return result(index, op, TaskBatchItemStatus.CONFLICT, taskId, TaskResponse.from(task), "Task was modified concurrently");
+        }
+
+        ColumnEntity current = task.getColumn();
+        switch (op.getType()) {
+            case UPDATE -> {
+                if (payload == null) {
+                    return result(index, op, TaskBatchItemStatus.INVALID, taskId, null, "task is required");
+                }
+                UUID columnId = payload.getColumnId() != null ? payload.getColumnId() : op.getColumnId();
+                ColumnEntity target = columnId == null ? current : columns.get(columnId);
+                if (target == null) {
+                    return result(index, op, TaskBatchItemStatus.NOT_FOUND, taskId, null, "Column not found");
+                }
+                return new Planned(index, op, task, current, target);
+            }
+            case MOVE -> {
+                if (op.getColumnId() == null) {
+                    return result(index, op, TaskBatchItemStatus.INVALID, taskId, null, "columnId is required");
+                }
+                ColumnEntity target = columns.get(op.getColumnId());
+                if (target == null) {
+                    return result(index, op, TaskBatchItemStatus.NOT_FOUND, taskId, null, "Column not found");
+                }
+                return new Planned(index, op, task, current, target);
+            }
+            default -> {
+                return new Planned(index, op, task, current, null);
+            }
+        }
+    }
+
+    private void moveTo(Task task, Planned p, Map<UUID, Long> nextSeq, List<BoardTombstone> tombstones,
+                        Map<Integer, Long> deletionSeqs, LocalDateTime now) {
+        task.setColumn(p.target());
+        task.setChangeSeq(takeSeq(nextSeq, p.target().getBoard()));
+        // Перенос на другую доску: для старой доски задача исчезла
+        if (leavesBoard(p)) {
+            Board oldBoard = p.oldColumn().getBoard();
+            long seq = takeSeq(nextSeq, oldBoard);
+            tombstones.add(tombstone(oldBoard, task.getId(), seq, now));
+            deletionSeqs.put(p.index(), seq);
+        }
+    }
+
+    private static boolean leavesBoard(Planned p) {
+        return !p.oldColumn().getBoard().getId().equals(p.target().getBoard().getId());
+    }
+
+    private static long takeSeq(Map<UUID, Long> nextSeq, Board board) {
+        return nextSeq.merge(board.getId(), 1L, Long::sum) - 1;
+    }
+
+    private static BoardTombstone tombstone(Board board, UUID taskId, long seq, LocalDateTime now) {
+        return BoardTombstone.builder()
+                .boardId(board.getId())
+                .entityType(BoardEntityType.TASK)
+                .entityId(taskId)
+                .changeSeq(seq)
+                .deletedAt(now)
+                .build();
+    }
+
+    private static List<User> resolveAssignees(List<UUID> assigneeIds, Map<UUID, User> users) {
+        if (assigneeIds == null) {
+            return new ArrayList<>();
+        }
+        // Как и в одиночном createTask: несуществующие id просто пропускаются
+        return assigneeIds.stream()
+                .distinct()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static boolean sameAssignees(Task task, List<UUID> assigneeIds) {
+        Set<UUID> current = task.getAssignees().stream().map(User::getId).collect(Collectors.toSet());
+        return current.equals(new HashSet<>(assigneeIds));
+    }
+
+    private static TaskBatchItemResult result(int index, TaskBatchOperation op, TaskBatchItemStatus status,
+                                              UUID taskId, TaskResponse task, String error) {
+        return TaskBatchItemResult.builder()
+                .index(index)
+                .type(op == null ? null : op.getType())
+                .status(status)
+                .taskId(taskId)
+                .task(task)
+                .error(error)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+// 🔧 Периодическая сверка счётчиков с таблицей task: пачками, каждая пачка — своя короткая транзакция
+@Slf4j
+@Component
+public class TaskCounterReconciler {
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final TaskCounterService taskCounterService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final boolean reconcileOnStartup;
+
+    public TaskCounterReconciler(TaskCounterService taskCounterService,
+                                 JdbcTemplate jdbcTemplate,
+                                 @Value("${tasks.counters.reconcile-chunk-size:200}") int chunkSize,
+                                 @Value("${tasks.counters.reconcile-on-startup:true}") boolean reconcileOnStartup) {
+        this.taskCounterService = taskCounterService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = chunkSize;
+        this.reconcileOnStartup = reconcileOnStartup;
+    }
+
+    // Flyway в проекте не подключён, V8 сам не применяется: при ddl-auto колонки счётчиков появляются нулевыми.
+    // Поэтому при старте снимаем устаревшие флаги overdue и сразу пересчитываем, не дожидаясь ночной сверки
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileAtStartup() {
+        if (!reconcileOnStartup) {
+            return;
+        }
+        int cleared = taskCounterService.clearStaleOverdueFlags(LocalDate.now());
+        if (cleared > 0) {
+            log.info("🔧 Сброшен устаревший флаг overdue у задач: {}", cleared);
+        }
+        reconcile();
+    }
+
+    @Scheduled(cron = "${tasks.counters.reconcile-cron:0 30 4 * * *}")
+    public void reconcile() {
+        int projects = reconcileChunks("SELECT id FROM project WHERE id > ? ORDER BY id LIMIT ?",
+                taskCounterService::reconcileProjects);
+        int users = reconcileChunks("SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                taskCounterService::reconcileUsers);
+        if (projects + users > 0) {
+            log.warn("🔧 Счётчики задач расходились с task: исправлено проектов {}, пользователей {}", projects, users);
+        }
+    }
+
+    private int reconcileChunks(String idsSql, Function<List<UUID>, Integer> reconcileChunk) {
+        UUID after = FIRST_ID;
+        int fixed = 0;
+        while (true) {
+            List<UUID> ids = jdbcTemplate.queryForList(idsSql, UUID.class, after, chunkSize);
+            if (ids.isEmpty()) {
+                return fixed;
+            }
+            fixed += reconcileChunk.apply(ids);
+            after = ids.get(ids.size() - 1);
+        }
+    }
+}
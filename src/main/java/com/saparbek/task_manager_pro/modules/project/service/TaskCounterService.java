@@ -0,0 +1,320 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskCounts;
+import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
+import com.saparbek.task_manager_pro.modules.project.repository.UserTaskCounterRepository;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Счётчики задач по проекту (project.*_count) и по исполнителю (user_task_counters).
+// Меняются SQL-инкрементами в той же транзакции, что и задачи; расхождения правит TaskCounterReconciler
+@Service
+@RequiredArgsConstructor
+public class TaskCounterService {
+
+    private static final String PROJECT_INCREMENT_SQL = """
+            UPDATE project
+            SET task_count = task_count + ?,
+                todo_count = todo_count + ?,
+                in_progress_count = in_progress_count + ?,
+                done_count = done_count + ?,
+                overdue_count = overdue_count + ?
+            WHERE id = ?
+            """;
+
+    private static final String USER_INCREMENT_SQL = """
+            INSERT INTO user_task_counters (total, todo, in_progress, done, overdue, user_id)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (user_id) DO UPDATE
+            SET total = user_task_counters.total + EXCLUDED.total,
+                todo = user_task_counters.todo + EXCLUDED.todo,
+                in_progress = user_task_counters.in_progress + EXCLUDED.in_progress,
+                done = user_task_counters.done + EXCLUDED.done,
+                overdue = user_task_counters.overdue + EXCLUDED.overdue
+            """;
+
+    // Те же счётчики, посчитанные по строкам task t
+    private static final String COUNTS = """
+            COUNT(t.id) AS total,
+                   COUNT(t.id) FILTER (WHERE t.status = 'TODO') AS todo,
+                   COUNT(t.id) FILTER (WHERE t.status = 'IN_PROGRESS') AS in_progress,
+                   COUNT(t.id) FILTER (WHERE t.status = 'DONE') AS done,
+                   COUNT(t.id) FILTER (WHERE t.overdue AND t.status <> 'DONE') AS overdue""";
+
+    private static final String COLUMN_PROJECTS_SQL = """
+            SELECT b.project_id AS scope_id, %s
+            FROM task t
+            JOIN columns c ON c.id = t.column_id
+            JOIN board b ON b.id = c.board_id
+            WHERE t.column_id = :id
+            GROUP BY b.project_id
+            """.formatted(COUNTS);
+
+    private static final String COLUMN_USERS_SQL = """
+            SELECT ta.user_id AS scope_id, %s
+            FROM task t
+            JOIN task_assignees ta ON ta.task_id = t.id
+            WHERE t.column_id = :id
+            GROUP BY ta.user_id
+            """.formatted(COUNTS);
+
+    private static final String PROJECT_USERS_SQL = """
+            SELECT ta.user_id AS scope_id, %s
+            FROM task t
+            JOIN task_assignees ta ON ta.task_id = t.id
+            JOIN columns c ON c.id = t.column_id
+            JOIN board b ON b.id = c.board_id
+            WHERE b.project_id = :id
+            GROUP BY ta.user_id
+            """.formatted(COUNTS);
+
+    // Только что помеченные просроченными: каждая задача даёт +1 к overdue своего проекта и исполнителей
+    private static final String OVERDUE_PROJECTS_SQL = """
+            SELECT b.project_id AS scope_id, COUNT(t.id) AS overdue
+            FROM task t
+            JOIN columns c ON c.id = t.column_id
+            JOIN board b ON b.id = c.board_id
+            WHERE t.id IN (:ids)
+            GROUP BY b.project_id
+            """;
+
+    private static final String OVERDUE_USERS_SQL = """
+            SELECT ta.user_id AS scope_id, COUNT(t.id) AS overdue
+            FROM task t
+            JOIN task_assignees ta ON ta.task_id = t.id
+            WHERE t.id IN (:ids)
+            GROUP BY ta.user_id
+            """;
+
+    // Флаг overdue до V8 не сбрасывался: закрытые и перенесённые на будущее задачи просроченными не считаются
+    private static final String CLEAR_STALE_OVERDUE_SQL = """
+            UPDATE task SET overdue = false
+            WHERE overdue AND (status = 'DONE' OR deadline IS NULL OR deadline >= :today)
+            """;
+
+    // Сверка: строки проектов блокируются до подсчёта, поэтому параллельные инкременты не теряются
+    private static final String RECONCILE_PROJECTS_SQL = """
+            UPDATE project p
+            SET task_count = a.total,
+                todo_count = a.todo,
+                in_progress_count = a.in_progress,
+                done_count = a.done,
+                overdue_count = a.overdue
+            FROM (
+                SELECT p2.id AS project_id, %s
+                FROM project p2
+                LEFT JOIN board b ON b.project_id = p2.id
+                LEFT JOIN columns c ON c.board_id = b.id
+                LEFT JOIN task t ON t.column_id = c.id
+                WHERE p2.id IN (:ids)
+                GROUP BY p2.id
+            ) a
+            WHERE p.id = a.project_id
+              AND (p.task_count, p.todo_count, p.in_progress_count, p.done_count, p.overdue_count)
+                  IS DISTINCT FROM (a.total, a.todo, a.in_progress, a.done, a.overdue)
+            """.formatted(COUNTS);
+
+    private static final String RECONCILE_USERS_SQL = """
+            INSERT INTO user_task_counters (user_id, total, todo, in_progress, done, overdue)
+            SELECT u.id, %s
+            FROM users u
+            LEFT JOIN task_assignees ta ON ta.user_id = u.id
+            LEFT JOIN task t ON t.id = ta.task_id
+            WHERE u.id IN (:ids)
+            GROUP BY u.id
+            HAVING COUNT(t.id) > 0 OR EXISTS (SELECT 1 FROM user_task_counters utc WHERE utc.user_id = u.id)
+            ON CONFLICT (user_id) DO UPDATE
+            SET total = EXCLUDED.total,
+                todo = EXCLUDED.todo,
+                in_progress = EXCLUDED.in_progress,
+                done = EXCLUDED.done,
+                overdue = EXCLUDED.overdue
+            WHERE (user_task_counters.total, user_task_counters.todo, user_task_counters.in_progress,
+                   user_task_counters.done, user_task_counters.overdue)
+                  IS DISTINCT FROM (EXCLUDED.total, EXCLUDED.todo, EXCLUDED.in_progress, EXCLUDED.done, EXCLUDED.overdue)
+            """.formatted(COUNTS);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final UserTaskCounterRepository userTaskCounterRepository;
+
+    // Вклад одной задачи в счётчики; считается до и после изменения
+    public record Contribution(UUID projectId, Set<UUID> userIds, TaskStatus status, boolean overdue) {
+
+        public static Contribution of(Task task) {
+            return of(task, task.getAssignees().stream().map(User::getId).collect(Collectors.toSet()));
+        }
+
+        // Исполнители уже известны (например, из TaskAssigneeRow) — коллекцию assignees не загружаем
+        public static Contribution of(Task task, Set<UUID> userIds) {
+            return new Contribution(
+                    task.getColumn().getBoard().getProject().getId(),
+                    userIds,
+                    task.getStatus(),
+                    task.isOverdue() && task.getStatus() != null && task.getStatus() != TaskStatus.DONE
+            );
+        }
+
+        // total, todo, in_progress, done, overdue
+        private long[] delta(int sign) {
+            return new long[]{
+                    sign,
+                    status == TaskStatus.TODO ? sign : 0,
+                    status == TaskStatus.IN_PROGRESS ? sign : 0,
+                    status == TaskStatus.DONE ? sign : 0,
+                    overdue ? sign : 0
+            };
+        }
+    }
+
+    // Накопленные изменения; ключи отсортированы — строки блокируются всегда в одном порядке
+    public static class Changes {
+        private final Map<UUID, long[]> projects = new TreeMap<>();
+        private final Map<UUID, long[]> users = new TreeMap<>();
+
+        public Changes add(Contribution contribution) {
+            return add(contribution, 1);
+        }
+
+        public Changes remove(Contribution contribution) {
+            return add(contribution, -1);
+        }
+
+        private Changes add(Contribution contribution, int sign) {
+            if (contribution == null) {
+                return this;
+            }
+            long[] delta = contribution.delta(sign);
+            accumulate(projects, contribution.projectId(), delta);
+            for (UUID userId : contribution.userIds()) {
+                accumulate(users, userId, delta);
+            }
+            return this;
+        }
+
+        private static void accumulate(Map<UUID, long[]> target, UUID id, long[] delta) {
+            long[] sum = target.computeIfAbsent(id, key -> new long[5]);
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += delta[i];
+            }
+        }
+    }
+
+    public TaskCounts getUserCounts(UUID userId) {
+        return userTaskCounterRepository.findById(userId)
+                .map(TaskCounts::from)
+                .orElseGet(TaskCounts::new);
+    }
+
+    // Обычное изменение задачи: before == null — создание, after == null — удаление
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void onTaskChanged(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) {
+            return; // правка названия/описания счётчики не меняет
+        }
+        apply(new Changes().remove(before).add(after));
+    }
+
+    // Вызывать до удаления колонки: её задачи уйдут каскадом
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void onColumnDeleted(UUID columnId) {
+        Changes changes = new Changes();
+        subtractCounts(COLUMN_PROJECTS_SQL, columnId, changes.projects);
+        subtractCounts(COLUMN_USERS_SQL, columnId, changes.users);
+        apply(changes);
+    }
+
+    // Вызывать до удаления проекта: строка проекта исчезнет, поправить нужно только исполнителей
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void onProjectDeleted(UUID projectId) {
+        Changes changes = new Changes();
+        subtractCounts(PROJECT_USERS_SQL, projectId, changes.users);
+        apply(changes);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void onMarkedOverdue(Collection<UUID> taskIds) {
+        Changes changes = new Changes();
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", taskIds);
+        jdbcTemplate.query(OVERDUE_PROJECTS_SQL, params, rs -> {
+            Changes.accumulate(changes.projects, rs.getObject("scope_id", UUID.class), new long[]{0, 0, 0, 0, rs.getLong("overdue")});
+        });
+        jdbcTemplate.query(OVERDUE_USERS_SQL, params, rs -> {
+            Changes.accumulate(changes.users, rs.getObject("scope_id", UUID.class), new long[]{0, 0, 0, 0, rs.getLong("overdue")});
+        });
+        apply(changes);
+    }
+
+    // Один JDBC batch на проекты и один на исполнителей; нулевые изменения не пишем
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void apply(Changes changes) {
+        List<Object[]> projectRows = rows(changes.projects);
+        if (!projectRows.isEmpty()) {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(PROJECT_INCREMENT_SQL, projectRows);
+        }
+        List<Object[]> userRows = rows(changes.users);
+        if (!userRows.isEmpty()) {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(USER_INCREMENT_SQL, userRows);
+        }
+    }
+
+    // Счётчики после этого не сходятся — вызывать перед reconcile()
+    @Transactional
+    public int clearStaleOverdueFlags(LocalDate today) {
+        return jdbcTemplate.update(CLEAR_STALE_OVERDUE_SQL, new MapSqlParameterSource("today", today));
+    }
+
+    @Transactional
+    public int reconcileProjects(List<UUID> projectIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", projectIds);
+        jdbcTemplate.query("SELECT id FROM project WHERE id IN (:ids) ORDER BY id FOR UPDATE", params, rs -> {
+        });
+        return jdbcTemplate.update(RECONCILE_PROJECTS_SQL, params);
+    }
+
+    @Transactional
+    public int reconcileUsers(List<UUID> userIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("ids", userIds);
+        jdbcTemplate.query("SELECT user_id FROM user_task_counters WHERE user_id IN (:ids) ORDER BY user_id FOR UPDATE", params, rs -> {
+        });
+        return jdbcTemplate.update(RECONCILE_USERS_SQL, params);
+    }
+
+    private void subtractCounts(String sql, UUID id, Map<UUID, long[]> target) {
+        jdbcTemplate.query(sql, new MapSqlParameterSource("id", id), rs -> {
+            Changes.accumulate(target, rs.getObject("scope_id", UUID.class), new long[]{
+                    -rs.getLong("total"),
+                    -rs.getLong("todo"),
+                    -rs.getLong("in_progress"),
+                    -rs.getLong("done"),
+                    -rs.getLong("overdue")
+            });
+        });
+    }
+
+    // Параметры инкремента: пять дельт, затем id
+    private static List<Object[]> rows(Map<UUID, long[]> deltas) {
+        List<Object[]> rows = new ArrayList<>();
+        deltas.forEach((id, delta) -> {
+            if (delta[0] != 0 || delta[1] != 0 || delta[2] != 0 || delta[3] != 0 || delta[4] != 0) {
+                rows.add(new Object[]{delta[0], delta[1], delta[2], delta[3], delta[4], id});
+            }
+        });
+        return rows;
+    }
+}
@@ -0,0 +1,114 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskPriority;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+// NDJSON-выгрузка задач: строки пишутся по мере чтения из JDBC-курсора, в памяти ничего не копится.
+// Исполнители — подзапросами ARRAY(...) в той же строке, без сущностей и ленивых загрузок
+@Service
+@RequiredArgsConstructor
+public class TaskExportService {
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    // %s — ограничение выборки (все задачи или задачи исполнителя)
+    private static final String EXPORT_SQL = """
+            SELECT t.id, t.title, t.description, t.priority, t.status, t.deadline, t.column_id, t.version,
+                   ARRAY(SELECT ta.user_id FROM task_assignees ta
+                         WHERE ta.task_id = t.id ORDER BY ta.user_id) AS assignee_ids,
+                   ARRAY(SELECT u.username FROM task_assignees ta JOIN users u ON u.id = ta.user_id
+                         WHERE ta.task_id = t.id ORDER BY ta.user_id) AS assignee_usernames
+            FROM task t
+            %s
+            ORDER BY t.id
+            """;
+
+    private static final String ASSIGNEE_SCOPE = "JOIN task_assignees mine ON mine.task_id = t.id AND mine.user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // Транзакция обязательна — без неё драйвер PostgreSQL игнорирует fetchSize и читает всё сразу
+    @Transactional
+    public void exportAll(OutputStream out) throws IOException {
+        export(EXPORT_SQL.formatted(""), List.of(), out);
+    }
+
+    @Transactional
+    public void exportByAssignee(UUID userId, OutputStream out) throws IOException {
+        export(EXPORT_SQL.formatted(ASSIGNEE_SCOPE), List.of(userId), out);
+    }
+
+    private void export(String sql, List<Object> params, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null); // строки разделяет только '\n', без пробела от Jackson
+
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY
+                );
+                statement.setFetchSize(EXPORT_FETCH_SIZE);
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                return statement;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    generator.writeObject(mapRow(rs));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private TaskResponse mapRow(ResultSet rs) throws SQLException {
+        String priority = rs.getString("priority");
+        String status = rs.getString("status");
+        return TaskResponse.builder()
+                .id(rs.getObject("id", UUID.class))
+                .title(rs.getString("title"))
+                .description(rs.getString("description"))
+                .priority(priority == null ? null : TaskPriority.valueOf(priority))
+                .status(status == null ? null : TaskStatus.valueOf(status))
+                .deadline(rs.getObject("deadline", LocalDate.class))
+                .columnId(rs.getObject("column_id", UUID.class))
+                .version(rs.getLong("version"))
+                .assigneeIds(toList(rs.getArray("assignee_ids"), UUID[].class))
+                .assigneeUsernames(toList(rs.getArray("assignee_usernames"), String[].class))
+                .build();
+    }
+
+    private static <T> List<T> toList(Array array, Class<T[]> type) throws SQLException {
+        if (array == null) {
+            return List.of();
+        }
+        try {
+            return Arrays.asList(type.cast(array.getArray()));
+        } finally {
+            array.free();
+        }
+    }
+}
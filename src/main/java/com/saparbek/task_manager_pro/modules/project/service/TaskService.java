@@ -2,45 +2,71 @@ package com.saparbek.task_manager_pro.modules.project.service;
 
 import com.saparbek.task_manager_pro.modules.activity.model.ActivityEvent;
 import com.saparbek.task_manager_pro.modules.activity.service.ActivityLogService;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskAssigneeRow;
 import com.saparbek.task_manager_pro.modules.project.dto.task.TaskFilterRequest;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskPageResponse;
 import com.saparbek.task_manager_pro.modules.project.dto.task.TaskRequest;
 import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
-import com.saparbek.task_manager_pro.modules.project.dto.task.WeeklyStats;
+import com.saparbek.task_manager_pro.modules.project.exception.TaskConflictException;
+import com.saparbek.task_manager_pro.modules.project.model.Board;
 import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEntityType;
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEventType;
 import com.saparbek.task_manager_pro.modules.project.model.enums.TaskPriority;
 import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
 import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
 import com.saparbek.task_manager_pro.modules.project.model.ColumnEntity;
 import com.saparbek.task_manager_pro.modules.project.repository.ColumnRepository;
+import com.saparbek.task_manager_pro.modules.project.service.TaskCounterService.Contribution;
 import com.saparbek.task_manager_pro.modules.user.model.User;
 import com.saparbek.task_manager_pro.modules.user.repository.UserRepository;
 
+import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.TextStyle;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class TaskService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final int ASSIGNEE_BATCH_SIZE = 1000;
+
     private final TaskRepository taskRepository;
     private final ColumnRepository columnRepository;
     private final UserRepository userRepository;
     private final ActivityLogService activityLogService;
+    private final BoardEventPublisher boardEventPublisher;
+    private final BoardChangeService boardChangeService;
+    private final TaskCounterService taskCounterService;
 
+    @Transactional
     public TaskResponse createTask(TaskRequest request, String creatorUsername) {
         ColumnEntity column = columnRepository.findById(request.getColumnId())
                 .orElseThrow(() -> new RuntimeException("Column not found"));
@@ -59,9 +85,11 @@ public class TaskService {
                 .createdAt(LocalDateTime.now())
                 .column(column)
                 .assignees(assignees)
+                .changeSeq(boardChangeService.nextSeq(column.getBoard().getId()))
                 .build();
 
         Task saved = taskRepository.save(task);
+        taskCounterService.onTaskChanged(null, Contribution.of(saved));
 
         activityLogService.logEvent(
                 ActivityEvent.TASK_CREATED,
@@ -71,13 +99,26 @@ public class TaskService {
                 column.getBoard().getProject().getId()
         );
 
-        return mapToResponse(saved);
+        TaskResponse response = mapToResponse(saved);
+        boardEventPublisher.publish(BoardEventType.TASK_CREATED, column.getBoard(), saved.getId(), saved.getChangeSeq(), response);
+        return response;
     }
 
     public List<TaskResponse> getTasksByColumn(UUID columnId) {
-        return taskRepository.findAllByColumnId(columnId).stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return toResponses(taskRepository.findAllByColumnId(columnId));
+    }
+
+    public String getTaskEtag(UUID id) {
+        long version = taskRepository.findVersionById(id)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        return "task-" + id + "-v" + version;
+    }
+
+    // Любое изменение задач колонки поднимает номер изменения доски
+    public String getColumnTasksEtag(UUID columnId) {
+        long changeSeq = columnRepository.findBoardChangeSeqByColumnId(columnId)
+                .orElseThrow(() -> new RuntimeException("Column not found"));
+        return "column-tasks-" + columnId + "-s" + changeSeq;
     }
 
     public TaskResponse getTaskById(UUID id) {
@@ -86,60 +127,195 @@ public class TaskService {
         return mapToResponse(task);
     }
 
+    @Transactional
     public TaskResponse updateTask(UUID id, TaskRequest request, String updaterUsername) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
+        List<TaskAssigneeRow> assignees = taskRepository.findAssigneesByTaskIds(List.of(id));
+        checkVersion(task, request.getVersion(), assignees);
+        Contribution before = Contribution.of(task, assigneeIds(assignees));
 
         ColumnEntity oldColumn = task.getColumn();
         ColumnEntity newColumn = columnRepository.findById(request.getColumnId())
                 .orElseThrow(() -> new RuntimeException("Column not found"));
+        Long deletionSeq = takeChangeSeqs(task, oldColumn, newColumn);
 
-        List<User> assignees = new ArrayList<>();
-        if (request.getAssigneeIds() != null) {
-            assignees = userRepository.findAllById(request.getAssigneeIds());
+        List<UUID> assigneeIds = request.getAssigneeIds() != null ? request.getAssigneeIds() : List.of();
+        // Состав не изменился — не перезаписываем task_assignees
+        if (!assigneeIds(assignees).equals(new HashSet<>(assigneeIds))) {
+            task.setAssignees(new ArrayList<>(userRepository.findAllById(assigneeIds)));
+            assignees = null;
         }
 
         task.setTitle(request.getTitle());
         task.setDescription(request.getDescription());
         task.setPriority(request.getPriority());
-        task.setStatus(request.getStatus());
         task.setDeadline(request.getDeadline());
         task.setColumn(newColumn);
-        task.setAssignees(assignees);
-
-        if (request.getStatus() == TaskStatus.DONE && task.getCompletedAt() == null) {
-            task.setCompletedAt(LocalDateTime.now());
-        } else if (request.getStatus() != TaskStatus.DONE && task.getCompletedAt() != null) {
-            task.setCompletedAt(null);
-        }
+        applyStatus(task, request.getStatus());
 
+        return finishUpdate(task, assignees, oldColumn, before, true, deletionSeq, updaterUsername);
+    }
 
-        Task updated = taskRepository.save(task);
+    // Частичное обновление: меняются только переданные поля; перенос не трогает исполнителей.
+    // Исполнители читаются проекцией, без загрузки User; ничего не изменилось — ни записи, ни нового номера
+    @Transactional
+    public TaskResponse patchTask(UUID id, Map<String, Object> updates, String updaterUsername) {
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Task not found"));
+        List<TaskAssigneeRow> assignees = taskRepository.findAssigneesByTaskIds(List.of(id));
+
+        try {
+            Object version = updates.get("version");
+            checkVersion(task, version == null ? null : ((Number) version).longValue(), assignees);
+            Contribution before = Contribution.of(task, assigneeIds(assignees));
+
+            ColumnEntity oldColumn = task.getColumn();
+            ColumnEntity newColumn = oldColumn;
+            if (updates.get("columnId") != null) {
+                UUID columnId = UUID.fromString(updates.get("columnId").toString());
+                if (!columnId.equals(oldColumn.getId())) {
+                    newColumn = columnRepository.findById(columnId)
+                            .orElseThrow(() -> new RuntimeException("Column not found"));
+                }
+            }
+
+            // Сначала только сравниваем: инкремент номера доски делает flush, изменённая до него задача получила бы две версии
+            List<Runnable> changes = new ArrayList<>();
+            if (updates.containsKey("title") && !Objects.equals(task.getTitle(), updates.get("title"))) {
+                String title = (String) updates.get("title");
+                changes.add(() -> task.setTitle(title));
+            }
+            if (updates.containsKey("description") && !Objects.equals(task.getDescription(), updates.get("description"))) {
+                String description = (String) updates.get("description");
+                changes.add(() -> task.setDescription(description));
+            }
+            if (updates.containsKey("priority")) {
+                Object value = updates.get("priority");
+                TaskPriority priority = value == null ? null : TaskPriority.valueOf(value.toString());
+                if (priority != task.getPriority()) {
+                    changes.add(() -> task.setPriority(priority));
+                }
+            }
+            if (updates.containsKey("status")) {
+                Object value = updates.get("status");
+                TaskStatus status = value == null ? null : TaskStatus.valueOf(value.toString());
+                if (status != task.getStatus()) {
+                    changes.add(() -> applyStatus(task, status));
+                }
+            }
+            if (updates.containsKey("deadline")) {
+                Object value = updates.get("deadline");
+                LocalDate deadline = value == null ? null : LocalDate.parse(value.toString());
+                if (!Objects.equals(deadline, task.getDeadline())) {
+                    changes.add(() -> task.setDeadline(deadline));
+                }
+            }
+            if (updates.containsKey("assigneeIds")) {
+                List<UUID> assigneeIds = updates.get("assigneeIds") == null
+                        ? List.of()
+                        : ((List<?>) updates.get("assigneeIds")).stream().map(v -> UUID.fromString(v.toString())).toList();
+                if (!assigneeIds(assignees).equals(new HashSet<>(assigneeIds))) {
+                    List<User> users = userRepository.findAllById(assigneeIds);
+                    changes.add(() -> task.setAssignees(new ArrayList<>(users)));
+                    assignees = null;
+                }
+            }
+
+            if (changes.isEmpty() && newColumn == oldColumn) {
+                return toResponse(task, assignees);
+            }
+            Long deletionSeq = takeChangeSeqs(task, oldColumn, newColumn);
+            changes.forEach(Runnable::run);
+            task.setColumn(newColumn);
+            boolean fieldsChanged = !changes.isEmpty();
+            return finishUpdate(task, assignees, oldColumn, before, fieldsChanged, deletionSeq, updaterUsername);
+        } catch (ClassCastException | IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid task field: " + e.getMessage());
+        }
+    }
 
+    // Номер изменения задачи на новой доске; при переносе между досками — ещё и номер tombstone старой.
+    // Оба берутся сразу и в порядке id досок: встречный перенос не заблокирует доски в обратном порядке
+    private Long takeChangeSeqs(Task task, ColumnEntity oldColumn, ColumnEntity newColumn) {
+        UUID oldBoardId = oldColumn.getBoard().getId();
+        UUID newBoardId = newColumn.getBoard().getId();
+        if (oldBoardId.equals(newBoardId)) {
+            task.setChangeSeq(boardChangeService.nextSeq(newBoardId));
+            return null;
+        }
+        Map<UUID, Long> seqs = boardChangeService.nextSeqs(List.of(newBoardId, oldBoardId));
+        task.setChangeSeq(seqs.get(newBoardId));
+        return seqs.get(oldBoardId);
+    }
 
-        if (!oldColumn.getId().equals(newColumn.getId())) {
-            activityLogService.logEvent(
-                    ActivityEvent.TASK_MOVED,
-                    updaterUsername,
-                    null,
-                    updated.getId(),
-                    newColumn.getBoard().getProject().getId()
-            );
+    // Общий хвост PUT и PATCH: запись, журнал и событие доски.
+    // assignees == null — состав исполнителей заменён, перечитываем его после записи
+    private TaskResponse finishUpdate(Task task, List<TaskAssigneeRow> assignees, ColumnEntity oldColumn, Contribution before,
+                                      boolean fieldsChanged, Long deletionSeq, String updaterUsername) {
+        refreshOverdue(task);
+        Task updated = taskRepository.saveAndFlush(task); // flush — чтобы в ответе уже была новая версия
+        if (assignees == null) {
+            assignees = taskRepository.findAssigneesByTaskIds(List.of(updated.getId()));
         }
+        taskCounterService.onTaskChanged(before, Contribution.of(updated, assigneeIds(assignees)));
+        ColumnEntity newColumn = updated.getColumn();
+        UUID projectId = newColumn.getBoard().getProject().getId();
+        boolean moved = !oldColumn.getId().equals(newColumn.getId());
 
+        if (moved) {
+            activityLogService.logEvent(ActivityEvent.TASK_MOVED, updaterUsername, null, updated.getId(), projectId);
+        }
+        if (fieldsChanged) {
+            activityLogService.logEvent(ActivityEvent.TASK_UPDATED, updaterUsername, null, updated.getId(), projectId);
+        }
 
-        activityLogService.logEvent(
-                ActivityEvent.TASK_UPDATED,
-                updaterUsername,
-                null,
+        TaskResponse response = toResponse(updated, assignees);
+        boardEventPublisher.publish(
+                moved ? BoardEventType.TASK_MOVED : BoardEventType.TASK_UPDATED,
+                newColumn.getBoard(),
                 updated.getId(),
-                newColumn.getBoard().getProject().getId()
+                updated.getChangeSeq(),
+                response
         );
+        // Перенос на другую доску: для старой доски задача исчезла
+        if (deletionSeq != null) {
+            boardChangeService.recordDeletion(oldColumn.getBoard().getId(), BoardEntityType.TASK, updated.getId(), deletionSeq);
+            boardEventPublisher.publish(BoardEventType.TASK_DELETED, oldColumn.getBoard(), updated.getId(), deletionSeq, null);
+        }
+        return response;
+    }
+
+    private void checkVersion(Task task, Long expectedVersion, List<TaskAssigneeRow> assignees) {
+        if (expectedVersion != null && expectedVersion != task.getVersion()) {
+            throw new TaskConflictException(toResponse(task, assignees));
+        }
+    }
+
+    private static Set<UUID> assigneeIds(List<TaskAssigneeRow> assignees) {
+        return assignees.stream().map(TaskAssigneeRow::getUserId).collect(Collectors.toSet());
+    }
 
-        return mapToResponse(updated);
+    // Закрытая или перенесённая на будущее задача больше не просрочена; ставит флаг только checkOverdueTasks
+    static void refreshOverdue(Task task) {
+        if (task.isOverdue() && (task.getStatus() == TaskStatus.DONE
+                || task.getDeadline() == null
+                || !task.getDeadline().isBefore(LocalDate.now()))) {
+            task.setOverdue(false);
+        }
     }
 
+    static void applyStatus(Task task, TaskStatus status) {
+        task.setStatus(status);
+        if (status == TaskStatus.DONE && task.getCompletedAt() == null) {
+            task.setCompletedAt(LocalDateTime.now());
+        } else if (status != TaskStatus.DONE && task.getCompletedAt() != null) {
+            task.setCompletedAt(null);
+        }
+    }
 
+
+    @Transactional
     public void deleteTask(UUID id, String deleterUsername) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found"));
@@ -152,7 +328,12 @@ public class TaskService {
                 task.getColumn().getBoard().getProject().getId()
         );
 
+        taskCounterService.onTaskChanged(Contribution.of(task), null);
         taskRepository.delete(task);
+
+        Board board = task.getColumn().getBoard();
+        long seq = boardChangeService.recordDeletion(board.getId(), BoardEntityType.TASK, task.getId());
+        boardEventPublisher.publish(BoardEventType.TASK_DELETED, board, task.getId(), seq, null);
     }
 
 
@@ -181,7 +362,8 @@ public class TaskService {
             spec = spec.and((root, query, cb) -> cb.equal(root.get("overdue"), overdue));
         }
 
-        return taskRepository.findAll(spec, pageable).map(this::mapToResponse);
+        Page<Task> page = taskRepository.findAll(spec, pageable);
+        return new PageImpl<>(toResponses(page.getContent()), page.getPageable(), page.getTotalElements());
     }
 
     private TaskResponse mapToResponse(Task task) {
@@ -199,6 +381,7 @@ public class TaskService {
                         .map(User::getUsername)
                         .collect(Collectors.toList()))
                 .columnId(task.getColumn().getId())
+                .version(task.getVersion())
                 .build();
     }
 
@@ -249,58 +432,100 @@ public class TaskService {
                 filterRequest.getPageSize() != null ? filterRequest.getPageSize() : 100,
                 sort);
 
-        return taskRepository.findAll(spec, pageable)
-                .map(this::mapToResponse)
-                .getContent();
+        return toResponses(taskRepository.findAll(spec, pageable).getContent());
     }
 
 
     public List<TaskResponse> getTasksForToday(UUID userId, LocalDate today) {
-        List<Task> tasks = taskRepository.findByDeadlineAndAssignee(today, userId);
-        return tasks.stream().map(TaskResponse::from).toList();
+        return toResponses(taskRepository.findByDeadlineAndAssignee(today, userId));
     }
 
-    public List<WeeklyStats> getWeeklyStats(UUID userId) {
-        List<WeeklyStats> stats = new ArrayList<>();
-        LocalDate today = LocalDate.now();
-
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = today.minusDays(i);
-            LocalDateTime start = date.atStartOfDay();
-            LocalDateTime end = date.plusDays(1).atStartOfDay();
+    // Списки задач: сами задачи уже загружены одним запросом, исполнители всех задач — IN-запросами
+    // по ASSIGNEE_BATCH_SIZE id; колонка берётся из FK без загрузки. Число запросов не зависит от числа задач на странице
+    private List<TaskResponse> toResponses(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return List.of();
+        }
 
-            long done = taskRepository.countByStatusAndCompletedAtBetweenAndAssigneeId(
-                    TaskStatus.DONE, start, end, userId
-            );
+        List<UUID> ids = tasks.stream().map(Task::getId).distinct().toList();
+        Map<UUID, List<TaskAssigneeRow>> assignees = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += ASSIGNEE_BATCH_SIZE) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + ASSIGNEE_BATCH_SIZE, ids.size()));
+            for (TaskAssigneeRow row : taskRepository.findAssigneesByTaskIds(chunk)) {
+                assignees.computeIfAbsent(row.getTaskId(), id -> new ArrayList<>()).add(row);
+            }
+        }
 
-            long pending = taskRepository.countByStatusNotAndCreatedAtBeforeAndAssigneeId(
-                    TaskStatus.DONE, end, userId
-            );
+        return tasks.stream()
+                .map(task -> toResponse(task, assignees.getOrDefault(task.getId(), List.of())))
+                .toList();
+    }
 
-            String dayShort = date.getDayOfWeek()
-                    .getDisplayName(TextStyle.SHORT, Locale.forLanguageTag("ru"));
+    private static TaskResponse toResponse(Task task, List<TaskAssigneeRow> assignees) {
+        return TaskResponse.builder()
+                .id(task.getId())
+                .title(task.getTitle())
+                .description(task.getDescription())
+                .priority(task.getPriority())
+                .status(task.getStatus())
+                .deadline(task.getDeadline())
+                .assigneeIds(assignees.stream().map(TaskAssigneeRow::getUserId).toList())
+                .assigneeUsernames(assignees.stream().map(TaskAssigneeRow::getUsername).toList())
+                .columnId(task.getColumn().getId())
+                .version(task.getVersion())
+                .build();
+    }
 
-            stats.add(new WeeklyStats(dayShort, done, pending));
-        }
+    // Keyset-пагинация по id: страница id, затем задачи с исполнителями — два запроса на любую глубину
+    public TaskPageResponse getTasksPage(String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        return toPage(taskRepository.findIdsAfter(decodeCursor(cursor), PageRequest.of(0, pageSize + 1)), pageSize);
+    }
 
-        return stats;
+    public TaskPageResponse getTasksByAssigneePage(UUID userId, String cursor, Integer limit) {
+        int pageSize = pageSize(limit);
+        return toPage(taskRepository.findIdsByAssigneeAfter(userId, decodeCursor(cursor), PageRequest.of(0, pageSize + 1)), pageSize);
     }
 
+    private static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
 
+    // Берём на один id больше, чтобы понять, есть ли следующая страница
+    private TaskPageResponse toPage(List<UUID> ids, int pageSize) {
+        String nextCursor = null;
+        if (ids.size() > pageSize) {
+            ids = ids.subList(0, pageSize);
+            nextCursor = encodeCursor(ids.get(pageSize - 1));
+        }
+        if (ids.isEmpty()) {
+            return new TaskPageResponse(List.of(), null);
+        }
 
-    public List<TaskResponse> getAllTasks() {
-        List<Task> tasks = taskRepository.findAll();
-        return tasks.stream().map(this::mapToResponse).collect(Collectors.toList());
+        Map<UUID, Task> tasks = taskRepository.findAllWithAssigneesByIdIn(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<TaskResponse> items = ids.stream()
+                .map(tasks::get)
+                .filter(Objects::nonNull) // удалена между запросами
+                .map(this::mapToResponse)
+                .toList();
+        return new TaskPageResponse(items, nextCursor);
     }
 
-    public List<TaskResponse> getTasksByAssignee(UUID userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        List<Task> tasks = taskRepository.findAllByAssigneesContaining(user);
+    // Курсор — id последней задачи страницы в base64url
+    private static String encodeCursor(UUID lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
 
-        return tasks.stream().map(this::mapToResponse).toList();
+    private static UUID decodeCursor(String cursor) {
+        if (cursor == null) {
+            return FIRST_ID;
+        }
+        try {
+            return UUID.fromString(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Некорректный курсор");
+        }
     }
 
 }
-
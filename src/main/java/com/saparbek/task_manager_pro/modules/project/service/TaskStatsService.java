@@ -0,0 +1,122 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskStatsBucket;
+import com.saparbek.task_manager_pro.modules.project.dto.task.WeeklyStats;
+import com.saparbek.task_manager_pro.modules.project.model.enums.StatsGranularity;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
+import com.saparbek.task_manager_pro.modules.project.repository.ProjectRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+// Статистика задач по интервалам одним запросом: интервалы строит generate_series,
+// задачи области (пользователь или проект) читаются один раз и раскладываются через GROUP BY
+@Service
+@RequiredArgsConstructor
+public class TaskStatsService {
+
+    private static final int MAX_BUCKETS = 366;
+
+    // %s — JOIN и условие области (USER_SCOPE / PROJECT_SCOPE).
+    // completed: DONE с completedAt внутри интервала; pending: не DONE и созданы до конца интервала
+    private static final String STATS_SQL = """
+            WITH buckets AS (
+                SELECT gs AS bucket_start, gs + CAST(:step AS interval) AS bucket_end
+                FROM generate_series(CAST(:from AS timestamp), CAST(:lastStart AS timestamp), CAST(:step AS interval)) AS gs
+            ),
+            scoped AS (
+                SELECT t.status, t.created_at, t.completed_at
+                FROM task t
+                %s
+                  AND t.created_at < :rangeEnd
+                  AND (t.status <> :done OR t.completed_at >= :from)
+            )
+            SELECT b.bucket_start,
+                   COUNT(s.status) FILTER (WHERE s.status = :done) AS completed,
+                   COUNT(s.status) FILTER (WHERE s.status <> :done) AS pending
+            FROM buckets b
+            LEFT JOIN scoped s
+                   ON (s.status = :done AND s.completed_at >= b.bucket_start AND s.completed_at < b.bucket_end)
+                   OR (s.status <> :done AND s.created_at < b.bucket_end)
+            GROUP BY b.bucket_start
+            ORDER BY b.bucket_start
+            """;
+
+    private static final String USER_SCOPE = """
+            JOIN task_assignees ta ON ta.task_id = t.id
+                WHERE ta.user_id = :scopeId""";
+
+    private static final String PROJECT_SCOPE = """
+            JOIN columns c ON c.id = t.column_id
+                JOIN board b ON b.id = c.board_id
+                WHERE b.project_id = :scopeId""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ProjectRepository projectRepository;
+
+    // Дашборд: последние 7 дней пользователя в прежнем формате
+    public List<WeeklyStats> getWeeklyStats(UUID userId) {
+        LocalDate today = LocalDate.now();
+        return getUserStats(userId, today.minusDays(6), today, StatsGranularity.DAY).stream()
+                .map(bucket -> new WeeklyStats(
+                        bucket.getFrom().getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.forLanguageTag("ru")),
+                        bucket.getCompleted(),
+                        bucket.getPending()
+                ))
+                .toList();
+    }
+
+    public List<TaskStatsBucket> getUserStats(UUID userId, LocalDate from, LocalDate to, StatsGranularity granularity) {
+        return query(USER_SCOPE, userId, from, to, granularity);
+    }
+
+    public List<TaskStatsBucket> getProjectStats(UUID projectId, String email,
+                                                 LocalDate from, LocalDate to, StatsGranularity granularity) {
+        if (!projectRepository.isAccessibleBy(projectId, email)) {
+            throw new RuntimeException("Access denied");
+        }
+        return query(PROJECT_SCOPE, projectId, from, to, granularity);
+    }
+
+    private List<TaskStatsBucket> query(String scope, UUID scopeId, LocalDate from, LocalDate to,
+                                        StatsGranularity granularity) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        LocalDate first = granularity.align(from);
+        LocalDate lastStart = granularity.align(to);
+        long buckets = granularity.getUnit().between(first, lastStart) + 1;
+        if (buckets > MAX_BUCKETS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Too many intervals, max " + MAX_BUCKETS);
+        }
+        LocalDateTime rangeEnd = lastStart.plus(1, granularity.getUnit()).atStartOfDay();
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("step", granularity.getInterval())
+                .addValue("from", first.atStartOfDay())
+                .addValue("lastStart", lastStart.atStartOfDay())
+                .addValue("rangeEnd", rangeEnd)
+                .addValue("done", TaskStatus.DONE.name())
+                .addValue("scopeId", scopeId);
+
+        return jdbcTemplate.query(STATS_SQL.formatted(scope), params, (rs, rowNum) -> {
+            LocalDate bucketStart = rs.getObject("bucket_start", LocalDateTime.class).toLocalDate();
+            return new TaskStatsBucket(
+                    bucketStart,
+                    bucketStart.plus(1, granularity.getUnit()).minusDays(1),
+                    rs.getLong("completed"),
+                    rs.getLong("pending")
+            );
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskCounts;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskPriorityCount;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskSummaryResponse;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskPriority;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
+import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+// Сводка для дашборда: счётчики из user_task_counters, приоритеты — одним GROUP BY,
+// списки просроченных и ближайших задач — с LIMIT в БД, размер ответа не зависит от числа задач
+@Service
+public class TaskSummaryService {
+
+    private final TaskCounterService taskCounterService;
+    private final TaskRepository taskRepository;
+    private final int maxItems;
+
+    public TaskSummaryService(TaskCounterService taskCounterService,
+                              TaskRepository taskRepository,
+                              @Value("${tasks.summary.max-items:50}") int maxItems) {
+        this.taskCounterService = taskCounterService;
+        this.taskRepository = taskRepository;
+        this.maxItems = maxItems;
+    }
+
+    public TaskSummaryResponse getSummary(UUID userId, int overdueLimit, int nearestLimit) {
+        TaskCounts counts = taskCounterService.getUserCounts(userId);
+
+        Map<TaskPriority, Long> byPriority = new EnumMap<>(TaskPriority.class);
+        for (TaskPriority priority : TaskPriority.values()) {
+            byPriority.put(priority, 0L);
+        }
+        for (TaskPriorityCount row : taskRepository.countByPriorityForAssignee(userId)) {
+            if (row.getPriority() != null) {
+                byPriority.put(row.getPriority(), row.getCount());
+            }
+        }
+
+        return TaskSummaryResponse.builder()
+                .total(counts.getTotal())
+                .todo(counts.getTodo())
+                .inProgress(counts.getInProgress())
+                .done(counts.getDone())
+                .overdueCount(counts.getOverdue())
+                .byPriority(byPriority)
+                .overdue(taskRepository.findOverdueForSummary(userId, TaskStatus.DONE, limit(overdueLimit)))
+                .nearest(taskRepository.findNearestForSummary(userId, TaskStatus.DONE, LocalDate.now(), limit(nearestLimit)))
+                .build();
+    }
+
+    private PageRequest limit(int requested) {
+        return PageRequest.of(0, Math.max(1, Math.min(requested, maxItems)));
+    }
+}
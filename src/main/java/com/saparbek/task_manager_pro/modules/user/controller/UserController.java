@@ -3,6 +3,7 @@ package com.saparbek.task_manager_pro.modules.user.controller;
 import com.saparbek.task_manager_pro.modules.user.model.Role;
 import com.saparbek.task_manager_pro.modules.user.repository.UserRepository;
 import com.saparbek.task_manager_pro.modules.user.security.CustomUserDetails;
+import com.saparbek.task_manager_pro.modules.user.security.PrincipalCache;
 import com.saparbek.task_manager_pro.modules.user.dto.UpdateUserRequest;
 import com.saparbek.task_manager_pro.modules.user.dto.UserResponse;
 import com.saparbek.task_manager_pro.modules.user.model.User;
@@ -16,6 +17,8 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/user")
 @RequiredArgsConstructor
@@ -23,6 +26,7 @@ public class UserController {
 
     private final UserService userService;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @PutMapping("/update")
     @PreAuthorize("isAuthenticated()")
@@ -73,9 +77,16 @@ public class UserController {
 
         user.setRole(Role.ADMIN);
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
         return ResponseEntity.ok("🎉 You are now an admin!");
     }
 
+    @GetMapping("/cache/principals")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Long>> principalCacheStats() {
+        return ResponseEntity.ok(principalCache.stats());
+    }
+
 
 }
 
@@ -0,0 +1,87 @@
+package com.saparbek.task_manager_pro.modules.user.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Кэш аутентифицированных пользователей для JwtFilter: ключ — email, запись живёт ttl-seconds
+@Component
+public class PrincipalCache {
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public PrincipalCache(@Value("${security.principal-cache.ttl-seconds:60}") long ttlSeconds,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+    }
+
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(email);
+        if (entry != null && entry.expiresAt() > now) {
+            hits.incrementAndGet();
+            return entry.userDetails();
+        }
+
+        misses.incrementAndGet();
+        UserDetails loaded = loader.apply(email);
+        entries.put(email, new Entry(loaded, now + ttlMillis));
+        if (entries.size() > maxSize) {
+            evict(now);
+        }
+        return loaded;
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            entries.remove(email);
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public Map<String, Long> stats() {
+        return Map.of(
+                "size", (long) entries.size(),
+                "hits", hits.get(),
+                "misses", misses.get(),
+                "evictions", evictions.get()
+        );
+    }
+
+    // Сначала выбрасываем просроченные записи, затем любые, пока не уложимся в maxSize
+    private void evict(long now) {
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().expiresAt() <= now;
+            if (expired) {
+                evictions.incrementAndGet();
+            }
+            return expired;
+        });
+
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private record Entry(UserDetails userDetails, long expiresAt) {
+    }
+}
@@ -3,6 +3,7 @@ package com.saparbek.task_manager_pro.modules.user.service;
 import com.saparbek.task_manager_pro.modules.user.model.User;
 import com.saparbek.task_manager_pro.modules.user.repository.UserRepository;
 import com.saparbek.task_manager_pro.modules.user.security.CustomUserDetails;
+import com.saparbek.task_manager_pro.modules.user.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,7 +15,7 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
-
+    private final PrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -22,4 +23,9 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         return new CustomUserDetails(user);
     }
+
+    // Для JwtFilter: повторные запросы одного пользователя не ходят в БД
+    public UserDetails loadCachedUserByUsername(String email) throws UsernameNotFoundException {
+        return principalCache.get(email, this::loadUserByUsername);
+    }
 }
@@ -2,6 +2,7 @@ package com.saparbek.task_manager_pro.modules.user.service;
 
 import com.saparbek.task_manager_pro.modules.user.dto.UpdateUserRequest;
 import com.saparbek.task_manager_pro.modules.user.security.CustomUserDetails;
+import com.saparbek.task_manager_pro.modules.user.security.PrincipalCache;
 import com.saparbek.task_manager_pro.modules.user.model.User;
 import com.saparbek.task_manager_pro.modules.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +26,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
     public void updateUser(UUID userId, UpdateUserRequest request) {
         User user = userRepository.findById(userId)
@@ -38,6 +40,7 @@ public class UserService {
         }
 
         userRepository.save(user);
+        principalCache.invalidate(user.getEmail());
     }
 
 
@@ -53,6 +56,7 @@ public class UserService {
             User user = userRepository.findById(userId).orElseThrow();
             user.setAvatarUrl("/uploads/avatars/" + filename); // для фронта
             userRepository.save(user);
+            principalCache.invalidate(user.getEmail());
         } catch (IOException e) {
             throw new RuntimeException("Ошибка при загрузке файла", e);
         }
@@ -0,0 +1,59 @@
+-- activity_logs: помесячное партиционирование по timestamp.
+-- Старую таблицу (если её уже создал Hibernate) переносим в партиционированную.
+-- PK обязан включать ключ партиционирования, поэтому он (id, timestamp).
+
+DO $$
+BEGIN
+   IF to_regclass('activity_logs') IS NOT NULL THEN
+      ALTER TABLE activity_logs RENAME TO activity_logs_legacy;
+   END IF;
+END $$;
+
+CREATE TABLE activity_logs (
+   id UUID NOT NULL,
+   event VARCHAR(255),
+   username VARCHAR(255),
+   target_user VARCHAR(255),
+   task_id UUID,
+   timestamp TIMESTAMP(6) NOT NULL,
+   project_id UUID NOT NULL,
+   PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Страховка: строки вне созданных партиций не теряются
+CREATE TABLE activity_logs_default PARTITION OF activity_logs DEFAULT;
+
+CREATE INDEX idx_activity_project_ts_id ON activity_logs (project_id, timestamp DESC, id DESC);
+
+-- Партиции activity_logs_yYYYYmMM: от самого старого события до текущего месяца + 3
+DO $$
+DECLARE
+   first_month DATE := date_trunc('month', now())::date;
+   last_month DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+   month DATE;
+BEGIN
+   IF to_regclass('activity_logs_legacy') IS NOT NULL THEN
+      SELECT LEAST(first_month, COALESCE(date_trunc('month', MIN(timestamp))::date, first_month))
+      INTO first_month
+      FROM activity_logs_legacy;
+   END IF;
+
+   month := first_month;
+   WHILE month <= last_month LOOP
+      EXECUTE format(
+         'CREATE TABLE IF NOT EXISTS %I PARTITION OF activity_logs FOR VALUES FROM (%L) TO (%L)',
+         'activity_logs_y' || to_char(month, 'YYYY') || 'm' || to_char(month, 'MM'),
+         month,
+         (month + INTERVAL '1 month')::date
+      );
+      month := (month + INTERVAL '1 month')::date;
+   END LOOP;
+
+   IF to_regclass('activity_logs_legacy') IS NOT NULL THEN
+      INSERT INTO activity_logs (id, event, username, target_user, task_id, timestamp, project_id)
+      SELECT id, event, username, target_user, task_id, COALESCE(timestamp, now()), project_id
+      FROM activity_logs_legacy;
+
+      DROP TABLE activity_logs_legacy;
+   END IF;
+END $$;
@@ -0,0 +1,16 @@
+-- Дневные итоги журнала по проекту и типу события: графики читают их, а не сырые события.
+-- Итоги переживают удаление старых партиций activity_logs.
+CREATE TABLE activity_daily_rollups (
+   project_id UUID NOT NULL,
+   rollup_date DATE NOT NULL,
+   event VARCHAR(255) NOT NULL,
+   event_count BIGINT NOT NULL,
+   PRIMARY KEY (project_id, rollup_date, event)
+);
+
+-- Заполняем итоги по уже накопленной истории
+INSERT INTO activity_daily_rollups (project_id, rollup_date, event, event_count)
+SELECT project_id, CAST(timestamp AS DATE), event, COUNT(*)
+FROM activity_logs
+WHERE event IS NOT NULL
+GROUP BY project_id, CAST(timestamp AS DATE), event;
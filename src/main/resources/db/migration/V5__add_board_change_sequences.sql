@@ -0,0 +1,20 @@
+-- Номера изменений для delta-sync досок (GET /api/boards/{id}/changes?since=N)
+ALTER TABLE board ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE board ADD COLUMN pruned_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE task ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE columns ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_task_column_change_seq ON task (column_id, change_seq);
+CREATE INDEX idx_columns_board_change_seq ON columns (board_id, change_seq);
+
+-- Удалённые задачи и колонки; старые записи чистит BoardChangeService.purgeTombstones
+CREATE TABLE board_tombstones (
+   id UUID PRIMARY KEY,
+   board_id UUID NOT NULL,
+   entity_type VARCHAR(255) NOT NULL,
+   entity_id UUID NOT NULL,
+   change_seq BIGINT NOT NULL,
+   deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_board_tombstones_board_seq ON board_tombstones (board_id, change_seq);
@@ -0,0 +1,4 @@
+-- @Version для optimistic locking и ETag (task, project, columns)
+ALTER TABLE task ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE project ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE columns ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+-- Задачи пользователя: /api/tasks/stats, /stats/weekly и «мои задачи» идут от task_assignees.user_id
+CREATE INDEX IF NOT EXISTS idx_task_assignees_user ON task_assignees (user_id);
@@ -0,0 +1,52 @@
+-- Счётчики задач по проекту и по исполнителю: поддерживает TaskCounterService, расхождения правит reconcile()
+ALTER TABLE project ADD COLUMN IF NOT EXISTS task_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE project ALTER COLUMN task_count SET DEFAULT 0;
+ALTER TABLE project ADD COLUMN todo_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE project ADD COLUMN in_progress_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE project ADD COLUMN done_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE project ADD COLUMN overdue_count BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE user_task_counters (
+   user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+   total BIGINT NOT NULL DEFAULT 0,
+   todo BIGINT NOT NULL DEFAULT 0,
+   in_progress BIGINT NOT NULL DEFAULT 0,
+   done BIGINT NOT NULL DEFAULT 0,
+   overdue BIGINT NOT NULL DEFAULT 0
+);
+
+-- Флаг overdue раньше не сбрасывался: закрытые и перенесённые на будущее задачи не должны считаться просроченными
+UPDATE task SET overdue = false
+WHERE overdue AND (status = 'DONE' OR deadline IS NULL OR deadline >= CURRENT_DATE);
+
+-- Начальные значения
+UPDATE project p
+SET task_count = a.total,
+    todo_count = a.todo,
+    in_progress_count = a.in_progress,
+    done_count = a.done,
+    overdue_count = a.overdue
+FROM (
+    SELECT b.project_id,
+           COUNT(*) AS total,
+           COUNT(*) FILTER (WHERE t.status = 'TODO') AS todo,
+           COUNT(*) FILTER (WHERE t.status = 'IN_PROGRESS') AS in_progress,
+           COUNT(*) FILTER (WHERE t.status = 'DONE') AS done,
+           COUNT(*) FILTER (WHERE t.overdue AND t.status <> 'DONE') AS overdue
+    FROM task t
+    JOIN columns c ON c.id = t.column_id
+    JOIN board b ON b.id = c.board_id
+    GROUP BY b.project_id
+) a
+WHERE p.id = a.project_id;
+
+INSERT INTO user_task_counters (user_id, total, todo, in_progress, done, overdue)
+SELECT ta.user_id,
+       COUNT(*),
+       COUNT(*) FILTER (WHERE t.status = 'TODO'),
+       COUNT(*) FILTER (WHERE t.status = 'IN_PROGRESS'),
+       COUNT(*) FILTER (WHERE t.status = 'DONE'),
+       COUNT(*) FILTER (WHERE t.overdue AND t.status <> 'DONE')
+FROM task_assignees ta
+JOIN task t ON t.id = ta.task_id
+GROUP BY ta.user_id;
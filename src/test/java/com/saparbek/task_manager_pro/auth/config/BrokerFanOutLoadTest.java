@@ -0,0 +1,106 @@
+package com.saparbek.task_manager_pro.auth.config;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Пропускная способность рассылки одного топика на много подписанных сессий.
+// В обычный mvn test не входит, запуск: mvn -Ploadtest test
+// Размеры можно поднять: -Dloadtest.sessions=... -Dloadtest.relay-sessions=... -Dloadtest.messages=...
+// Пороги (доставок в секунду): -Dloadtest.min-simple-rate=... -Dloadtest.min-relay-rate=...
+@Tag("load")
+class BrokerFanOutLoadTest {
+
+    private static final int SESSIONS = Integer.getInteger("loadtest.sessions", 10_000);
+    // Каждая клиентская сессия relay — отдельное TCP-соединение с брокером, упираемся в лимит дескрипторов
+    private static final int RELAY_SESSIONS = Integer.getInteger("loadtest.relay-sessions", 500);
+    private static final int MESSAGES = Integer.getInteger("loadtest.messages", 50);
+
+    // С запасом в несколько раз от замеров на машине разработчика (~340k/s и ~6.5k/s)
+    private static final long MIN_SIMPLE_RATE = Long.getLong("loadtest.min-simple-rate", 50_000);
+    private static final long MIN_RELAY_RATE = Long.getLong("loadtest.min-relay-rate", 1_000);
+
+    private static final String DESTINATION = "/topic/projects/load/board";
+
+    @Test
+    void simpleBrokerFanOutToSubscribedSessions() {
+        BrokerTestSupport.CountingChannel clients = new BrokerTestSupport.CountingChannel();
+        SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(
+                new ExecutorSubscribableChannel(), clients, new ExecutorSubscribableChannel(), List.of("/topic")
+        );
+        broker.start();
+
+        try {
+            for (int i = 0; i < SESSIONS; i++) {
+                String sessionId = "s-" + i;
+                broker.handleMessage(BrokerTestSupport.connect(sessionId));
+                broker.handleMessage(BrokerTestSupport.subscribe(sessionId, DESTINATION, null));
+            }
+
+            long started = System.nanoTime();
+            for (int i = 0; i < MESSAGES; i++) {
+                broker.handleMessage(BrokerTestSupport.publish(DESTINATION, "{\"seq\":" + i + "}"));
+            }
+            long elapsed = System.nanoTime() - started;
+
+            long expected = (long) SESSIONS * MESSAGES;
+            assertThat(clients.delivered).hasValue(expected);
+            assertThat(clients.deliveredBySession).hasSize(SESSIONS);
+            assertRate("simple", expected, elapsed, MIN_SIMPLE_RATE);
+        } finally {
+            broker.stop();
+        }
+    }
+
+    @Test
+    void relayFanOutThroughExternalBroker() throws Exception {
+        try (EmbeddedStompBroker stompBroker = new EmbeddedStompBroker()) {
+            BrokerTestSupport.CountingChannel publisherClients = new BrokerTestSupport.CountingChannel();
+            BrokerTestSupport.CountingChannel subscriberClients = new BrokerTestSupport.CountingChannel();
+            StompBrokerRelayMessageHandler publisher = BrokerTestSupport.relay(stompBroker.getPort(), publisherClients);
+            StompBrokerRelayMessageHandler subscriber = BrokerTestSupport.relay(stompBroker.getPort(), subscriberClients);
+
+            try {
+                for (int i = 0; i < RELAY_SESSIONS; i++) {
+                    subscriber.handleMessage(BrokerTestSupport.connect("r-" + i));
+                }
+                BrokerTestSupport.CountingChannel.await(subscriberClients.connected, RELAY_SESSIONS, 60_000);
+                assertThat(subscriberClients.connected).hasValue(RELAY_SESSIONS);
+
+                for (int i = 0; i < RELAY_SESSIONS; i++) {
+                    String sessionId = "r-" + i;
+                    subscriber.handleMessage(BrokerTestSupport.subscribe(sessionId, DESTINATION, "receipt-" + sessionId));
+                }
+                BrokerTestSupport.CountingChannel.await(subscriberClients.receipts, RELAY_SESSIONS, 60_000);
+                assertThat(subscriberClients.receipts).hasValue(RELAY_SESSIONS);
+
+                long expected = (long) RELAY_SESSIONS * MESSAGES;
+                long started = System.nanoTime();
+                for (int i = 0; i < MESSAGES; i++) {
+                    publisher.handleMessage(BrokerTestSupport.publish(DESTINATION, "{\"seq\":" + i + "}"));
+                }
+                BrokerTestSupport.CountingChannel.await(subscriberClients.delivered, expected, 120_000);
+                long elapsed = System.nanoTime() - started;
+
+                assertThat(subscriberClients.delivered).hasValue(expected);
+                assertRate("relay", expected, elapsed, MIN_RELAY_RATE);
+            } finally {
+                publisher.stop();
+                subscriber.stop();
+            }
+        }
+    }
+
+    private static void assertRate(String mode, long deliveries, long elapsedNanos, long minRate) {
+        double rate = deliveries / (elapsedNanos / 1_000_000_000.0);
+        assertThat(rate)
+                .as("fan-out [%s]: доставок в секунду", mode)
+                .isGreaterThanOrEqualTo(minRate);
+    }
+}
@@ -0,0 +1,98 @@
+package com.saparbek.task_manager_pro.auth.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Сообщения и каналы для тестов брокера без реальных WebSocket-сессий
+final class BrokerTestSupport {
+
+    private BrokerTestSupport() {
+    }
+
+    static Message<byte[]> connect(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        accessor.setAcceptVersion("1.2");
+        accessor.setHeartbeat(0, 0);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    static Message<byte[]> subscribe(String sessionId, String destination, String receipt) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-" + sessionId);
+        accessor.setDestination(destination);
+        if (receipt != null) {
+            accessor.setReceipt(receipt);
+        }
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    static Message<byte[]> publish(String destination, String payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(payload.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+
+    // Relay-инстанс приложения: отдельные каналы, общий внешний брокер
+    static StompBrokerRelayMessageHandler relay(int port, MessageChannel clientOutbound) throws InterruptedException {
+        StompBrokerRelayMessageHandler relay = new StompBrokerRelayMessageHandler(
+                new ExecutorSubscribableChannel(), clientOutbound, new ExecutorSubscribableChannel(), List.of("/topic")
+        );
+        relay.setRelayHost("127.0.0.1");
+        relay.setRelayPort(port);
+        relay.start();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!relay.isBrokerAvailable() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        return relay;
+    }
+
+    // clientOutboundChannel, который только считает: доставки по сессиям, CONNECTED и RECEIPT
+    static class CountingChannel implements MessageChannel {
+
+        final AtomicLong delivered = new AtomicLong();
+        final AtomicLong connected = new AtomicLong();
+        final AtomicLong receipts = new AtomicLong();
+        final Map<String, AtomicLong> deliveredBySession = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean send(Message<?> message, long timeout) {
+            StompCommand command = StompHeaderAccessor.wrap(message).getCommand();
+            SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+
+            if (type == SimpMessageType.MESSAGE) {
+                delivered.incrementAndGet();
+                String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                deliveredBySession.computeIfAbsent(sessionId, id -> new AtomicLong()).incrementAndGet();
+            } else if (type == SimpMessageType.CONNECT_ACK || command == StompCommand.CONNECTED) {
+                connected.incrementAndGet();
+            } else if (command == StompCommand.RECEIPT) {
+                receipts.incrementAndGet();
+            }
+            return true;
+        }
+
+        static void await(AtomicLong counter, long expected, long timeoutMillis) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (counter.get() < expected && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+        }
+    }
+}
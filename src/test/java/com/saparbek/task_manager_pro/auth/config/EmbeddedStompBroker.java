@@ -0,0 +1,44 @@
+package com.saparbek.task_manager_pro.auth.config;
+
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+// Встроенный STOMP-брокер (Artemis) вместо внешнего — для тестов relay-режима
+class EmbeddedStompBroker implements AutoCloseable {
+
+    private final EmbeddedActiveMQ server = new EmbeddedActiveMQ();
+    private final int port;
+
+    EmbeddedStompBroker() throws Exception {
+        this.port = freePort();
+
+        ConfigurationImpl configuration = new ConfigurationImpl();
+        configuration.setPersistenceEnabled(false);
+        configuration.setSecurityEnabled(false);
+        configuration.setJMXManagementEnabled(false);
+        // /topic/... — multicast: каждое сообщение получает каждый подписчик
+        configuration.addAcceptorConfiguration("stomp",
+                "tcp://127.0.0.1:" + port + "?protocols=STOMP;multicastPrefix=/topic/;anycastPrefix=/queue/");
+
+        server.setConfiguration(configuration);
+        server.start();
+    }
+
+    int getPort() {
+        return port;
+    }
+
+    @Override
+    public void close() throws Exception {
+        server.stop();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
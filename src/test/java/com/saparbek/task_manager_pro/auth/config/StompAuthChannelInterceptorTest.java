@@ -0,0 +1,72 @@
+package com.saparbek.task_manager_pro.auth.config;
+
+import com.saparbek.task_manager_pro.auth.service.JwtService;
+import com.saparbek.task_manager_pro.modules.project.repository.BoardRepository;
+import com.saparbek.task_manager_pro.modules.user.model.Role;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import com.saparbek.task_manager_pro.modules.user.security.CustomUserDetails;
+import com.saparbek.task_manager_pro.modules.user.service.CustomUserDetailsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.security.Principal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class StompAuthChannelInterceptorTest {
+
+    private final StompAuthChannelInterceptor interceptor = new StompAuthChannelInterceptor(
+            mock(JwtService.class), mock(CustomUserDetailsService.class), mock(BoardRepository.class)
+    );
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @Test
+    void sendToBrokerTopicIsRejectedEvenWhenAuthenticated() {
+        UUID projectId = UUID.randomUUID();
+        UUID boardId = UUID.randomUUID();
+
+        assertThatThrownBy(() -> interceptor.preSend(send("/topic/projects/" + projectId + "/boards/" + boardId, user()), channel))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(send("/topic/notifications/" + UUID.randomUUID(), user()), channel))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preSend(send(null, user()), channel))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void sendToApplicationRequiresAuthenticatedUser() {
+        assertThatThrownBy(() -> interceptor.preSend(send("/app/anything", null), channel))
+                .isInstanceOf(AccessDeniedException.class);
+
+        Message<?> message = send("/app/anything", user());
+        assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+    }
+
+    private static Message<byte[]> send(String destination, Principal user) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SEND);
+        accessor.setDestination(destination);
+        accessor.setUser(user);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Principal user() {
+        CustomUserDetails details = new CustomUserDetails(User.builder()
+                .id(UUID.randomUUID())
+                .username("user")
+                .email("user@example.com")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+        return new UsernamePasswordAuthenticationToken(details, null, details.getAuthorities());
+    }
+}
@@ -0,0 +1,46 @@
+package com.saparbek.task_manager_pro.auth.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Два инстанса приложения за балансировщиком: событие, опубликованное на одном, получают клиенты обоих
+class StompBrokerRelayTest {
+
+    @Test
+    void deliversEventsToClientsConnectedToAnotherInstance() throws Exception {
+        try (EmbeddedStompBroker broker = new EmbeddedStompBroker()) {
+            BrokerTestSupport.CountingChannel clientsOfA = new BrokerTestSupport.CountingChannel();
+            BrokerTestSupport.CountingChannel clientsOfB = new BrokerTestSupport.CountingChannel();
+            StompBrokerRelayMessageHandler instanceA = BrokerTestSupport.relay(broker.getPort(), clientsOfA);
+            StompBrokerRelayMessageHandler instanceB = BrokerTestSupport.relay(broker.getPort(), clientsOfB);
+
+            try {
+                assertThat(instanceA.isBrokerAvailable()).isTrue();
+                assertThat(instanceB.isBrokerAvailable()).isTrue();
+
+                String destination = "/topic/notifications/user-1";
+                instanceA.handleMessage(BrokerTestSupport.connect("a-1"));
+                instanceB.handleMessage(BrokerTestSupport.connect("b-1"));
+                BrokerTestSupport.CountingChannel.await(clientsOfA.connected, 1, 5_000);
+                BrokerTestSupport.CountingChannel.await(clientsOfB.connected, 1, 5_000);
+
+                instanceA.handleMessage(BrokerTestSupport.subscribe("a-1", destination, "r-a-1"));
+                instanceB.handleMessage(BrokerTestSupport.subscribe("b-1", destination, "r-b-1"));
+                BrokerTestSupport.CountingChannel.await(clientsOfA.receipts, 1, 5_000);
+                BrokerTestSupport.CountingChannel.await(clientsOfB.receipts, 1, 5_000);
+
+                instanceA.handleMessage(BrokerTestSupport.publish(destination, "{\"title\":\"hello\"}"));
+
+                BrokerTestSupport.CountingChannel.await(clientsOfA.delivered, 1, 5_000);
+                BrokerTestSupport.CountingChannel.await(clientsOfB.delivered, 1, 5_000);
+                assertThat(clientsOfA.delivered).hasValue(1);
+                assertThat(clientsOfB.delivered).hasValue(1);
+            } finally {
+                instanceA.stop();
+                instanceB.stop();
+            }
+        }
+    }
+}
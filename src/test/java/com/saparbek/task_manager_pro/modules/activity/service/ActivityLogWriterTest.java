@@ -0,0 +1,153 @@
+package com.saparbek.task_manager_pro.modules.activity.service;
+
+import com.saparbek.task_manager_pro.modules.activity.model.ActivityLog;
+import com.saparbek.task_manager_pro.modules.activity.model.OverflowPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActivityLogWriterTest {
+
+    private static final String WORKER = "activity-log-writer";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CountDownLatch workerBusy = new CountDownLatch(1);
+    private final CountDownLatch unblockWorker = new CountDownLatch(1);
+    private final List<String> writerThreads = new CopyOnWriteArrayList<>();
+    private ActivityLogWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        unblockWorker.countDown();
+        writer.flushOnShutdown();
+    }
+
+    @Test
+    void callerRunsWritesOverflowOnCallerThread() throws InterruptedException {
+        writer = blockedWriter(OverflowPolicy.CALLER_RUNS);
+
+        writer.submit(entry()); // в буфер
+        writer.submit(entry()); // буфер полон — пишем сами
+
+        assertThat(writerThreads).containsExactly(WORKER, Thread.currentThread().getName());
+        assertThat(writer.getDropped()).isZero();
+    }
+
+    @Test
+    void dropPolicyCountsOverflow() throws InterruptedException {
+        writer = blockedWriter(OverflowPolicy.DROP);
+
+        writer.submitAll(List.of(entry(), entry(), entry()));
+
+        assertThat(writerThreads).containsExactly(WORKER);
+        assertThat(writer.getDropped()).isEqualTo(2);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedBatchIsRetriedBeforeDropping() {
+        AtomicInteger calls = new AtomicInteger();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    if (calls.incrementAndGet() < 3) {
+                        throw new DataAccessResourceFailureException("база недоступна");
+                    }
+                    return new int[0][];
+                });
+        writer = new ActivityLogWriter(jdbcTemplate, 10, 10, 10, 10, OverflowPolicy.CALLER_RUNS, 3, 1);
+
+        writer.submit(entry());
+
+        verify(jdbcTemplate, timeout(2000).times(3))
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(writer.getDropped()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchIsDroppedAfterMaxAttempts() throws InterruptedException {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("база недоступна"));
+        writer = new ActivityLogWriter(jdbcTemplate, 10, 10, 10, 10, OverflowPolicy.CALLER_RUNS, 3, 1);
+
+        writer.submitAll(List.of(entry(), entry()));
+        writer.flushOnShutdown();
+
+        verify(jdbcTemplate, times(3))
+                .batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(writer.getDropped()).isEqualTo(2);
+        assertThat(writer.getWritten()).isZero();
+    }
+
+    @Test
+    void shutdownFlushesBufferAndWritesLateEventsSynchronously() throws InterruptedException {
+        writer = blockedWriter(OverflowPolicy.CALLER_RUNS);
+        writer.submit(entry());
+
+        Thread shutdown = new Thread(() -> {
+            try {
+                writer.flushOnShutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        shutdown.start();
+        unblockWorker.countDown();
+        shutdown.join(TimeUnit.SECONDS.toMillis(15));
+
+        // Событие после остановки не теряется: пишется в потоке вызывающего
+        writer.submit(entry());
+
+        assertThat(writer.getWritten()).isEqualTo(3);
+        assertThat(writer.getDropped()).isZero();
+    }
+
+    // Буфер на одно событие, поток записи занят первым событием до unblockWorker
+    @SuppressWarnings("unchecked")
+    private ActivityLogWriter blockedWriter(OverflowPolicy policy) throws InterruptedException {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    String thread = Thread.currentThread().getName();
+                    writerThreads.add(thread);
+                    if (thread.equals(WORKER) && workerBusy.getCount() > 0) {
+                        workerBusy.countDown();
+                        unblockWorker.await(5, TimeUnit.SECONDS);
+                    }
+                    return new int[((Collection<?>) invocation.getArgument(1)).size()][];
+                });
+        ActivityLogWriter blocked = new ActivityLogWriter(jdbcTemplate, 1, 1, 10, 10, policy, 3, 1);
+        blocked.submit(entry());
+        assertThat(workerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+        return blocked;
+    }
+
+    private static ActivityLog entry() {
+        return ActivityLog.builder()
+                .id(UUID.randomUUID())
+                .timestamp(LocalDateTime.now())
+                .projectId(UUID.randomUUID())
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.saparbek.task_manager_pro.modules.activity.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Без партиций (H2, V3 не применена) срок хранения держится DELETE пачками
+@DataJpaTest
+class ActivityStorageMaintenanceServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ActivityStorageMaintenanceService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ActivityStorageMaintenanceService(jdbcTemplate);
+        ReflectionTestUtils.setField(service, "retentionMonths", 12);
+        ReflectionTestUtils.setField(service, "premakeMonths", 3);
+        ReflectionTestUtils.setField(service, "deleteBatchSize", 2);
+    }
+
+    @Test
+    void unpartitionedTableFallsBackToBatchedDelete() {
+        YearMonth oldestKept = YearMonth.now().minusMonths(12);
+        for (int i = 0; i < 5; i++) {
+            insert(oldestKept.minusMonths(1).atDay(1).atStartOfDay().plusHours(i));
+        }
+        insert(oldestKept.atDay(1).atStartOfDay());
+        insert(LocalDateTime.now());
+
+        service.maintainPartitions();
+
+        // Пять старых строк ушли тремя пачками, граница месяца и свежие остались
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM activity_logs", Integer.class)).isEqualTo(2);
+        assertThat(service.deleteExpired(oldestKept)).isZero();
+    }
+
+    private void insert(LocalDateTime timestamp) {
+        jdbcTemplate.update("INSERT INTO activity_logs (id, timestamp, project_id) VALUES (?, ?, ?)",
+                UUID.randomUUID(), Timestamp.valueOf(timestamp), UUID.randomUUID());
+    }
+}
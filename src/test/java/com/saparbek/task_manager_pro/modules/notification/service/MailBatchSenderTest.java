@@ -0,0 +1,71 @@
+package com.saparbek.task_manager_pro.modules.notification.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.saparbek.task_manager_pro.modules.notification.dto.MailBatchResult;
+import com.saparbek.task_manager_pro.modules.notification.model.OutboxMail;
+import com.saparbek.task_manager_pro.modules.notification.model.OutboxStatus;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailBatchSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void sendsWholeChunkThroughLocalSmtp() throws Exception {
+        MailBatchSender sender = new MailBatchSender(mailSender(ServerSetupTest.SMTP.getPort()));
+        List<OutboxMail> mails = IntStream.range(0, 3)
+                .mapToObj(i -> mail("user" + i + "@example.com", "Дайджест " + i))
+                .toList();
+
+        MailBatchResult result = sender.send(mails);
+
+        assertThat(result.getFailed()).isEmpty();
+        assertThat(result.getSent()).containsExactlyElementsOf(mails.stream().map(OutboxMail::getId).toList());
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(3);
+        assertThat(received[0].getSubject()).isEqualTo("Дайджест 0");
+    }
+
+    @Test
+    void reportsEveryMailAsFailedWhenSmtpIsDown() {
+        // На этом порту никто не слушает
+        MailBatchSender sender = new MailBatchSender(mailSender(ServerSetupTest.SMTP.getPort() + 1));
+        List<OutboxMail> mails = List.of(mail("a@example.com", "A"), mail("b@example.com", "B"));
+
+        MailBatchResult result = sender.send(mails);
+
+        assertThat(result.getSent()).isEmpty();
+        assertThat(result.getFailed()).containsOnlyKeys(mails.get(0).getId(), mails.get(1).getId());
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    private static JavaMailSenderImpl mailSender(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        return mailSender;
+    }
+
+    private static OutboxMail mail(String recipient, String subject) {
+        return OutboxMail.builder()
+                .id(UUID.randomUUID())
+                .recipient(recipient)
+                .subject(subject)
+                .body("<p>" + subject + "</p>")
+                .status(OutboxStatus.SENDING)
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package com.saparbek.task_manager_pro.modules.notification.service;
+
+import com.saparbek.task_manager_pro.modules.notification.dto.MailBatchResult;
+import com.saparbek.task_manager_pro.modules.notification.model.OutboxMail;
+import com.saparbek.task_manager_pro.modules.notification.model.OutboxStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MailOutboxDispatcherTest {
+
+    private final MailOutboxService outboxService = mock(MailOutboxService.class);
+    private final MailBatchSender batchSender = mock(MailBatchSender.class);
+    // Один воркер, пачки по два письма: два слота на четыре письма
+    private final MailOutboxDispatcher dispatcher = new MailOutboxDispatcher(outboxService, batchSender, 1, 2, 7);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void rejectedChunksReturnSlotsAndLease() throws InterruptedException {
+        List<OutboxMail> due = List.of(mail(), mail(), mail());
+        when(outboxService.claimDue(anyInt())).thenReturn(due);
+        dispatcher.shutdown();
+
+        dispatcher.dispatch();
+
+        verify(outboxService).release(due.stream().map(OutboxMail::getId).toList());
+        verify(batchSender, never()).send(anyList());
+
+        // Слоты вернулись: следующий проход снова забирает полный лимит
+        dispatcher.dispatch();
+        verify(outboxService, times(2)).claimDue(4);
+    }
+
+    @Test
+    void slotsAreHeldUntilChunkIsSent() throws InterruptedException {
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        when(outboxService.claimDue(anyInt())).thenReturn(List.of(mail(), mail(), mail(), mail()));
+        when(batchSender.send(anyList())).thenAnswer(invocation -> {
+            sending.countDown();
+            unblock.await(5, TimeUnit.SECONDS);
+            return new MailBatchResult(List.of(), Map.of());
+        });
+
+        try {
+            dispatcher.dispatch();
+            sending.await(5, TimeUnit.SECONDS);
+            // Обе пачки ещё в работе — из БД больше не забираем
+            dispatcher.dispatch();
+            verify(outboxService, times(1)).claimDue(anyInt());
+        } finally {
+            unblock.countDown();
+        }
+    }
+
+    private static OutboxMail mail() {
+        return OutboxMail.builder()
+                .id(UUID.randomUUID())
+                .recipient("user@example.com")
+                .subject("s")
+                .body("b")
+                .status(OutboxStatus.SENDING)
+                .attempts(0)
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.saparbek.task_manager_pro.modules.notification.service;
+
+import com.saparbek.task_manager_pro.modules.notification.dto.MailBatchResult;
+import com.saparbek.task_manager_pro.modules.notification.model.OutboxMail;
+import com.saparbek.task_manager_pro.modules.notification.model.OutboxStatus;
+import com.saparbek.task_manager_pro.modules.notification.repository.OutboxMailRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MailOutboxServiceTest {
+
+    private OutboxMailRepository repository;
+    private MailOutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OutboxMailRepository.class);
+        service = new MailOutboxService(repository);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        ReflectionTestUtils.setField(service, "retryBackoffSeconds", 30L);
+        ReflectionTestUtils.setField(service, "leaseSeconds", 300L);
+    }
+
+    @Test
+    void marksSentAndSchedulesRetryWithBackoff() {
+        OutboxMail sent = mail(0);
+        OutboxMail retried = mail(1);
+        when(repository.findAllById(anyIterable())).thenReturn(List.of(sent, retried));
+
+        LocalDateTime before = LocalDateTime.now();
+        service.complete(new MailBatchResult(List.of(sent.getId()), Map.of(retried.getId(), "421 try later")));
+
+        assertThat(sent.getStatus()).isEqualTo(OutboxStatus.SENT);
+        assertThat(sent.getSentAt()).isNotNull();
+
+        assertThat(retried.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(2);
+        assertThat(retried.getLastError()).isEqualTo("421 try later");
+        // вторая неудача: 30с * 2
+        assertThat(retried.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(60));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        OutboxMail mail = mail(2);
+        when(repository.findAllById(anyIterable())).thenReturn(List.of(mail));
+
+        service.complete(new MailBatchResult(List.of(), Map.of(mail.getId(), "550 no such user")));
+
+        assertThat(mail.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(mail.getAttempts()).isEqualTo(3);
+    }
+
+    @Test
+    void releaseReturnsClaimedMailToPending() {
+        OutboxMail claimed = mail(0);
+        claimed.setNextAttemptAt(LocalDateTime.now().plusSeconds(300));
+        when(repository.findAllById(anyIterable())).thenReturn(List.of(claimed));
+
+        LocalDateTime before = LocalDateTime.now();
+        service.release(List.of(claimed.getId()));
+
+        assertThat(claimed.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(claimed.getNextAttemptAt()).isBetween(before, LocalDateTime.now());
+        assertThat(claimed.getAttempts()).isZero();
+    }
+
+    private static OutboxMail mail(int attempts) {
+        return OutboxMail.builder()
+                .id(UUID.randomUUID())
+                .recipient("user@example.com")
+                .subject("s")
+                .body("b")
+                .status(OutboxStatus.SENDING)
+                .attempts(attempts)
+                .build();
+    }
+}
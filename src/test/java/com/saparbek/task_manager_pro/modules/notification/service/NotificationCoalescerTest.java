@@ -0,0 +1,177 @@
+package com.saparbek.task_manager_pro.modules.notification.service;
+
+import com.saparbek.task_manager_pro.modules.notification.model.Notification;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationCoalescerTest {
+
+    // Окно заведомо больше теста: плановый проход не вмешивается
+    private static final long WINDOW_MS = 3_600_000;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private NotificationCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        coalescer.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void maxPendingWakesFlusherInsteadOfWritingOnCallerThread() {
+        coalescer = new NotificationCoalescer(jdbcTemplate, messagingTemplate, WINDOW_MS, 2, 1000, 3);
+        List<String> writerThreads = new CopyOnWriteArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    writerThreads.add(Thread.currentThread().getName());
+                    throw new DataAccessResourceFailureException("база недоступна");
+                });
+        User user = user();
+
+        assertThatCode(() -> {
+            coalescer.submit(notification(user, "1"));
+            coalescer.submit(notification(user, "2"));
+        }).doesNotThrowAnyException();
+
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(writerThreads).allMatch(name -> name.startsWith("notification-coalescer-"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedBatchIsWrittenOnNextFlush() {
+        coalescer = new NotificationCoalescer(jdbcTemplate, messagingTemplate, WINDOW_MS, 1000, 1000, 3);
+        List<List<UUID>> attempts = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    attempts.add(ids(invocation.getArgument(1)));
+                    if (attempts.size() == 1) {
+                        throw new DataAccessResourceFailureException("база недоступна");
+                    }
+                    return new int[0][];
+                });
+        User user = user();
+        Notification first = notification(user, "1");
+        Notification second = notification(user, "2");
+
+        coalescer.submit(first);
+        assertThatThrownBy(coalescer::flush).isInstanceOf(DataAccessResourceFailureException.class);
+        verify(messagingTemplate, times(0)).convertAndSend(anyString(), any(Object.class));
+
+        coalescer.submit(second);
+        coalescer.flush();
+
+        assertThat(attempts).containsExactly(
+                List.of(first.getId()),
+                List.of(first.getId(), second.getId())
+        );
+        verify(messagingTemplate).convertAndSend(eq("/topic/notifications/" + user.getId()), any(Object.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void permanentlyBadRowIsIsolatedAndDroppedAfterMaxAttempts() throws Exception {
+        coalescer = new NotificationCoalescer(jdbcTemplate, messagingTemplate, WINDOW_MS, 1000, 1000, 2);
+        // Пачка с плохой строкой падает целиком (например, FK после удаления получателя)
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataIntegrityViolationException("fk_notification_recipient"));
+        List<String> singleInserts = new ArrayList<>();
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            invocation.getArgument(1, PreparedStatementSetter.class).setValues(ps);
+            ArgumentCaptor<String> title = ArgumentCaptor.forClass(String.class);
+            verify(ps).setString(eq(2), title.capture());
+            singleInserts.add(title.getValue());
+            if (title.getValue().equals("bad")) {
+                throw new DataIntegrityViolationException("fk_notification_recipient");
+            }
+            return 1;
+        });
+        User alive = user();
+        User deleted = user();
+        coalescer.submit(notification(alive, "good"));
+        coalescer.submit(notification(deleted, "bad"));
+
+        assertThatThrownBy(coalescer::flush).isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(coalescer::flush).isInstanceOf(DataIntegrityViolationException.class);
+        coalescer.flush(); // третья попытка — по одной строке
+        coalescer.flush(); // очередь пуста, плохая строка больше не мешает
+
+        assertThat(singleInserts).containsExactly("good", "bad");
+        verify(messagingTemplate).convertAndSend(eq("/topic/notifications/" + alive.getId()), any(Object.class));
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/notifications/" + deleted.getId()), any(Object.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bufferIsCappedWhileDatabaseIsDown() {
+        coalescer = new NotificationCoalescer(jdbcTemplate, messagingTemplate, WINDOW_MS, 1000, 2, 3);
+        List<List<UUID>> attempts = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    attempts.add(ids(invocation.getArgument(1)));
+                    return new int[0][];
+                });
+        User user = user();
+        Notification first = notification(user, "1");
+        Notification second = notification(user, "2");
+
+        coalescer.submit(first);
+        coalescer.submit(second);
+        coalescer.submit(notification(user, "3"));
+        coalescer.flush();
+
+        assertThat(attempts).containsExactly(List.of(first.getId(), second.getId()));
+    }
+
+    private static List<UUID> ids(Collection<Notification> notifications) {
+        return notifications.stream().map(Notification::getId).toList();
+    }
+
+    private static User user() {
+        return User.builder().id(UUID.randomUUID()).username("user").email("user@example.com").build();
+    }
+
+    private static Notification notification(User recipient, String title) {
+        return Notification.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .content(title)
+                .timestamp(LocalDateTime.now())
+                .recipient(recipient)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.saparbek.task_manager_pro.modules.project.controller;
+
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import com.saparbek.task_manager_pro.modules.project.exception.TaskConflictException;
+import com.saparbek.task_manager_pro.modules.project.model.ColumnEntity;
+import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.project.service.TaskBatchService;
+import com.saparbek.task_manager_pro.modules.project.service.TaskExportService;
+import com.saparbek.task_manager_pro.modules.project.service.TaskService;
+import com.saparbek.task_manager_pro.modules.project.service.TaskStatsService;
+import com.saparbek.task_manager_pro.modules.project.service.TaskSummaryService;
+import com.saparbek.task_manager_pro.modules.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Ответы 409 на устаревшую версию и на гонку при записи
+class TaskControllerTest {
+
+    private final TaskService taskService = mock(TaskService.class);
+    private final TaskController controller = new TaskController(taskService, mock(TaskBatchService.class),
+            mock(TaskStatsService.class), mock(TaskSummaryService.class), mock(TaskExportService.class),
+            mock(UserRepository.class));
+
+    @Test
+    void staleVersionReturnsCurrentState() {
+        TaskResponse current = TaskResponse.builder().id(UUID.randomUUID()).version(4).build();
+
+        ResponseEntity<TaskResponse> response = controller.handleConflict(new TaskConflictException(current));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isSameAs(current);
+    }
+
+    @Test
+    void concurrentWriteReturnsFreshTask() {
+        UUID taskId = UUID.randomUUID();
+        TaskResponse fresh = TaskResponse.builder().id(taskId).version(5).build();
+        when(taskService.getTaskById(taskId)).thenReturn(fresh);
+
+        ResponseEntity<TaskResponse> response = controller.handleConcurrentUpdate(
+                new ObjectOptimisticLockingFailureException(Task.class, taskId));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isSameAs(fresh);
+    }
+
+    @Test
+    void concurrentWriteOnOtherEntityIsNotMappedToTask() {
+        ObjectOptimisticLockingFailureException e = new ObjectOptimisticLockingFailureException(ColumnEntity.class, UUID.randomUUID());
+
+        assertThatThrownBy(() -> controller.handleConcurrentUpdate(e)).isSameAs(e);
+    }
+}
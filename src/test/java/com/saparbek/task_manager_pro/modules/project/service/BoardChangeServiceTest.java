@@ -0,0 +1,167 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import com.saparbek.task_manager_pro.modules.project.dto.board.BoardChangesResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.board.BoardTombstoneResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import com.saparbek.task_manager_pro.modules.project.model.Board;
+import com.saparbek.task_manager_pro.modules.project.model.BoardTombstone;
+import com.saparbek.task_manager_pro.modules.project.model.ColumnEntity;
+import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEntityType;
+import com.saparbek.task_manager_pro.modules.project.repository.BoardRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.BoardTombstoneRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.ColumnRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Номера изменений и delta-sync на настоящих репозиториях (H2)
+@DataJpaTest
+class BoardChangeServiceTest {
+
+    private static final int RETENTION_DAYS = 30;
+
+    @Autowired
+    private BoardRepository boardRepository;
+    @Autowired
+    private ColumnRepository columnRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private BoardTombstoneRepository tombstoneRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private BoardChangeService service;
+    private ProjectFixtures fixtures;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        service = new BoardChangeService(boardRepository, columnRepository, taskRepository, tombstoneRepository, RETENTION_DAYS);
+        fixtures = new ProjectFixtures(entityManager);
+        owner = fixtures.user("owner");
+    }
+
+    @Test
+    void seqIsMonotonicPerBoard() {
+        Board first = fixtures.board(owner);
+        Board second = fixtures.board(owner);
+
+        List<Long> firstSeqs = new ArrayList<>();
+        List<Long> secondSeqs = new ArrayList<>();
+        firstSeqs.add(service.nextSeq(first.getId()));
+        secondSeqs.add(service.nextSeq(second.getId()));
+        firstSeqs.add(service.nextSeq(first.getId()));
+        firstSeqs.add(service.recordDeletion(first.getId(), BoardEntityType.TASK, UUID.randomUUID()));
+        firstSeqs.add(service.reserveSeqs(first.getId(), 3));
+        secondSeqs.add(service.nextSeq(second.getId()));
+
+        // Диапазон из reserveSeqs занимает 4..6, следующий номер — 7
+        firstSeqs.add(service.nextSeq(first.getId()));
+
+        assertThat(firstSeqs).containsExactly(1L, 2L, 3L, 4L, 7L);
+        assertThat(secondSeqs).containsExactly(1L, 2L);
+        assertThat(boardRepository.findChangeSeq(first.getId())).contains(7L);
+        assertThat(boardRepository.findChangeSeq(second.getId())).contains(2L);
+    }
+
+    @Test
+    void nextSeqsTakesOneSeqPerBoardAndDeletionCanReuseIt() {
+        Board source = fixtures.board(owner);
+        Board target = fixtures.board(owner);
+        service.nextSeq(source.getId());
+
+        Map<UUID, Long> seqs = service.nextSeqs(List.of(target.getId(), source.getId()));
+        UUID movedId = UUID.randomUUID();
+        service.recordDeletion(source.getId(), BoardEntityType.TASK, movedId, seqs.get(source.getId()));
+        fixtures.reload();
+
+        assertThat(seqs).containsEntry(source.getId(), 2L).containsEntry(target.getId(), 1L);
+        // Порядок блокировок — по id досок, независимо от порядка аргументов
+        assertThat(List.copyOf(seqs.keySet())).isSorted();
+        assertThat(boardRepository.findChangeSeq(source.getId())).contains(2L);
+        assertThat(tombstoneRepository.findAllByBoardIdAndChangeSeqBetweenOrderByChangeSeq(source.getId(), 0, Long.MAX_VALUE))
+                .extracting(BoardTombstone::getEntityId, BoardTombstone::getChangeSeq)
+                .containsExactly(tuple(movedId, 2L));
+    }
+
+    @Test
+    void changesSinceIncludeTombstonesAndOnlyNewerRows() {
+        Board board = fixtures.board(owner);
+        ColumnEntity column = fixtures.column(board, service.nextSeq(board.getId()));
+        Task unchanged = task(column, service.nextSeq(board.getId()));
+        long since = service.nextSeq(board.getId());
+        Task changed = task(column, service.nextSeq(board.getId()));
+        UUID deletedId = UUID.randomUUID();
+        long deletedSeq = service.recordDeletion(board.getId(), BoardEntityType.TASK, deletedId);
+        fixtures.reload();
+
+        BoardChangesResponse changes = service.getChanges(board.getId(), since);
+
+        assertThat(changes.isResetRequired()).isFalse();
+        assertThat(changes.getChangeSeq()).isEqualTo(deletedSeq);
+        assertThat(changes.getColumns()).isEmpty();
+        assertThat(changes.getTasks()).extracting(TaskResponse::getId)
+                .containsExactly(changed.getId())
+                .doesNotContain(unchanged.getId());
+        assertThat(changes.getDeleted())
+                .containsExactly(new BoardTombstoneResponse(BoardEntityType.TASK, deletedId, deletedSeq));
+
+        // Клиент уже на последнем номере — пустой ответ без сброса
+        BoardChangesResponse upToDate = service.getChanges(board.getId(), changes.getChangeSeq());
+        assertThat(upToDate.isResetRequired()).isFalse();
+        assertThat(upToDate.getTasks()).isEmpty();
+        assertThat(upToDate.getDeleted()).isEmpty();
+    }
+
+    @Test
+    void sinceOlderThanPrunedSeqForcesFullResync() {
+        Board board = fixtures.board(owner);
+        long oldSeq = service.recordDeletion(board.getId(), BoardEntityType.TASK, UUID.randomUUID());
+        long expiredSeq = service.recordDeletion(board.getId(), BoardEntityType.TASK, UUID.randomUUID());
+        long freshSeq = service.recordDeletion(board.getId(), BoardEntityType.COLUMN, UUID.randomUUID());
+        fixtures.reload();
+        // Первые два удаления старше срока хранения
+        for (BoardTombstone tombstone : tombstoneRepository.findAllByBoardIdAndChangeSeqBetweenOrderByChangeSeq(board.getId(), oldSeq, expiredSeq)) {
+            tombstone.setDeletedAt(LocalDateTime.now().minusDays(RETENTION_DAYS + 1));
+        }
+        fixtures.reload();
+
+        service.purgeTombstones();
+        fixtures.reload();
+
+        assertThat(tombstoneRepository.findAllByBoardIdAndChangeSeqBetweenOrderByChangeSeq(board.getId(), 0, Long.MAX_VALUE))
+                .extracting(BoardTombstone::getChangeSeq)
+                .containsExactly(freshSeq);
+
+        BoardChangesResponse stale = service.getChanges(board.getId(), oldSeq);
+        assertThat(stale.isResetRequired()).isTrue();
+        assertThat(stale.getDeleted()).isEmpty();
+        assertThat(stale.getChangeSeq()).isEqualTo(freshSeq);
+
+        BoardChangesResponse fromPruned = service.getChanges(board.getId(), expiredSeq);
+        assertThat(fromPruned.isResetRequired()).isFalse();
+        assertThat(fromPruned.getDeleted()).extracting(BoardTombstoneResponse::changeSeq).containsExactly(freshSeq);
+
+        // since из будущего (например, доску пересоздали) — тоже полный снимок
+        assertThat(service.getChanges(board.getId(), freshSeq + 1).isResetRequired()).isTrue();
+    }
+
+    private Task task(ColumnEntity column, long changeSeq) {
+        return fixtures.persist(fixtures.newTask(column).changeSeq(changeSeq).build());
+    }
+}
@@ -0,0 +1,87 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import com.saparbek.task_manager_pro.modules.project.model.Board;
+import com.saparbek.task_manager_pro.modules.project.model.ColumnEntity;
+import com.saparbek.task_manager_pro.modules.project.model.Project;
+import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskPriority;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
+import com.saparbek.task_manager_pro.modules.user.model.Role;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Общие тестовые данные для @DataJpaTest модуля: пользователь → проект → доска → колонка → задача
+class ProjectFixtures {
+
+    private final EntityManager entityManager;
+
+    ProjectFixtures(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    User user(String username) {
+        return persist(User.builder()
+                .id(UUID.randomUUID())
+                .username(username)
+                .email(username + "@example.com")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+    }
+
+    // У каждой доски свой проект
+    Board board(User owner) {
+        return board(owner, 0);
+    }
+
+    Board board(User owner, long changeSeq) {
+        Project project = persist(Project.builder()
+                .name("project")
+                .createdBy(owner.getEmail())
+                .owner(owner)
+                .createdAt(LocalDateTime.now())
+                .build());
+        return persist(Board.builder().name("board").project(project).changeSeq(changeSeq).build());
+    }
+
+    ColumnEntity column(Board board) {
+        return column(board, 0);
+    }
+
+    ColumnEntity column(Board board, long changeSeq) {
+        return persist(ColumnEntity.builder().name("column").board(board).changeSeq(changeSeq).build());
+    }
+
+    Task.TaskBuilder newTask(ColumnEntity column, User... assignees) {
+        return Task.builder()
+                .title("task")
+                .description("description")
+                .status(TaskStatus.TODO)
+                .priority(TaskPriority.MEDIUM)
+                .column(column)
+                .assignees(new ArrayList<>(List.of(assignees)));
+    }
+
+    // Задача сразу уходит в БД, контекст сбрасывается: сервис прочитает её своими запросами
+    Task task(ColumnEntity column, User... assignees) {
+        Task task = persist(newTask(column, assignees).build());
+        reload();
+        return task;
+    }
+
+    <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    // Модифицирующие запросы репозиториев не чистят persistence context сами
+    void reload() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,278 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import com.saparbek.task_manager_pro.modules.activity.service.ActivityLogService;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskBatchItemResult;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskBatchOperation;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskBatchRequest;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskBatchResponse;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskRequest;
+import com.saparbek.task_manager_pro.modules.project.exception.TaskBatchConflictException;
+import com.saparbek.task_manager_pro.modules.project.model.Board;
+import com.saparbek.task_manager_pro.modules.project.model.BoardTombstone;
+import com.saparbek.task_manager_pro.modules.project.model.ColumnEntity;
+import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskBatchItemStatus;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskBatchOperationType;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskPriority;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
+import com.saparbek.task_manager_pro.modules.project.repository.BoardRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.BoardTombstoneRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.ColumnRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import com.saparbek.task_manager_pro.modules.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+// Пакетные операции на настоящих репозиториях (H2); счётчики, журнал и события доски — моки
+@DataJpaTest
+class TaskBatchServiceTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ColumnRepository columnRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BoardRepository boardRepository;
+    @Autowired
+    private BoardTombstoneRepository tombstoneRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private BoardChangeService boardChangeService;
+    private TaskCounterService taskCounterService;
+    private BoardEventPublisher boardEventPublisher;
+    private ActivityLogService activityLogService;
+    private ProjectFixtures fixtures;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        boardChangeService = spy(new BoardChangeService(boardRepository, columnRepository, taskRepository, tombstoneRepository, 30));
+        taskCounterService = mock(TaskCounterService.class);
+        boardEventPublisher = mock(BoardEventPublisher.class);
+        activityLogService = mock(ActivityLogService.class);
+        fixtures = new ProjectFixtures(entityManager);
+        user = fixtures.user("user");
+    }
+
+    @Test
+    void reportsEachInvalidOperationAndAppliesTheRest() {
+        ColumnEntity todo = fixtures.column(fixtures.board(user));
+        ColumnEntity done = fixtures.column(todo.getBoard());
+        Task stale = fixtures.task(todo, user);
+        Task moved = fixtures.task(todo, user);
+        Task incomplete = fixtures.task(todo, user);
+
+        TaskBatchResponse response = service().execute(request(false,
+                op(null),
+                move(incomplete.getId(), null),
+                delete(UUID.randomUUID()),
+                create(UUID.randomUUID()),
+                versioned(move(stale.getId(), done.getId()), stale.getVersion() + 7),
+                move(moved.getId(), done.getId()),
+                delete(moved.getId()),
+                create(todo.getId())
+        ), "user");
+
+        assertThat(response.getResults()).extracting(TaskBatchItemResult::getStatus).containsExactly(
+                TaskBatchItemStatus.INVALID,
+                TaskBatchItemStatus.INVALID,
+                TaskBatchItemStatus.NOT_FOUND,
+                TaskBatchItemStatus.NOT_FOUND,
+                TaskBatchItemStatus.CONFLICT,
+                TaskBatchItemStatus.OK,
+                TaskBatchItemStatus.INVALID,
+                TaskBatchItemStatus.OK
+        );
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(6);
+        // При CONFLICT клиент получает текущее состояние задачи
+        assertThat(response.getResults().get(4).getTask().getColumnId()).isEqualTo(todo.getId());
+
+        fixtures.reload();
+        assertThat(taskRepository.findById(moved.getId())).get()
+                .extracting(task -> task.getColumn().getId()).isEqualTo(done.getId());
+        assertThat(taskRepository.findById(stale.getId())).get()
+                .extracting(task -> task.getColumn().getId()).isEqualTo(todo.getId());
+        assertThat(taskRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void atomicBatchWithOneFailureChangesNothing() {
+        ColumnEntity todo = fixtures.column(fixtures.board(user));
+        ColumnEntity done = fixtures.column(todo.getBoard());
+        Task task = fixtures.task(todo, user);
+
+        TaskBatchResponse response = service().execute(request(true,
+                create(todo.getId()),
+                move(task.getId(), done.getId()),
+                delete(UUID.randomUUID())
+        ), "user");
+
+        assertThat(response.getResults()).extracting(TaskBatchItemResult::getStatus).containsExactly(
+                TaskBatchItemStatus.SKIPPED,
+                TaskBatchItemStatus.SKIPPED,
+                TaskBatchItemStatus.NOT_FOUND
+        );
+        assertThat(response.getSucceeded()).isZero();
+        assertThat(response.getFailed()).isEqualTo(3);
+
+        fixtures.reload();
+        assertThat(taskRepository.count()).isEqualTo(1);
+        assertThat(taskRepository.findById(task.getId())).get()
+                .extracting(t -> t.getColumn().getId()).isEqualTo(todo.getId());
+        assertThat(boardRepository.findChangeSeq(todo.getBoard().getId())).contains(0L);
+        verify(boardChangeService, never()).reserveSeqs(any(), anyInt());
+        verifyNoInteractions(taskCounterService, boardEventPublisher, activityLogService);
+    }
+
+    @Test
+    void reservesOneContiguousSeqRangePerBoard() {
+        Board boardA = fixtures.board(user, 10);
+        Board boardB = fixtures.board(user);
+        ColumnEntity a1 = fixtures.column(boardA);
+        ColumnEntity a2 = fixtures.column(boardA);
+        ColumnEntity b1 = fixtures.column(boardB);
+        Task leaving = fixtures.task(a1, user);
+        Task deleted = fixtures.task(a1, user);
+
+        TaskBatchResponse response = service().execute(request(false,
+                create(a1.getId()),
+                create(a2.getId()),
+                move(leaving.getId(), b1.getId()),
+                delete(deleted.getId())
+        ), "user");
+
+        assertThat(response.getSucceeded()).isEqualTo(4);
+        // Доска A: два создания, уход задачи на B и удаление; доска B: приход задачи
+        verify(boardChangeService).reserveSeqs(boardA.getId(), 4);
+        verify(boardChangeService).reserveSeqs(boardB.getId(), 1);
+        verify(boardChangeService, times(2)).reserveSeqs(any(), anyInt());
+        verify(taskCounterService).apply(any());
+        verify(activityLogService).logEvents(anyList());
+
+        fixtures.reload();
+        assertThat(boardRepository.findChangeSeq(boardA.getId())).contains(14L);
+        assertThat(boardRepository.findChangeSeq(boardB.getId())).contains(1L);
+
+        List<Long> seqsOnA = new ArrayList<>();
+        taskRepository.findAllByBoardIdWithAssignees(boardA.getId()).forEach(task -> seqsOnA.add(task.getChangeSeq()));
+        List<BoardTombstone> tombstones = tombstoneRepository.findAllByBoardIdAndChangeSeqBetweenOrderByChangeSeq(boardA.getId(), 0, Long.MAX_VALUE);
+        tombstones.forEach(tombstone -> seqsOnA.add(tombstone.getChangeSeq()));
+        assertThat(seqsOnA).containsExactlyInAnyOrder(11L, 12L, 13L, 14L);
+        assertThat(tombstones).extracting(BoardTombstone::getEntityId)
+                .containsExactlyInAnyOrder(leaving.getId(), deleted.getId());
+        assertThat(taskRepository.findById(leaving.getId())).get()
+                .extracting(Task::getChangeSeq).isEqualTo(1L);
+    }
+
+    @Test
+    void versionConflictAtFlushIsReportedPerOperation() {
+        ColumnEntity todo = fixtures.column(fixtures.board(user));
+        ColumnEntity done = fixtures.column(todo.getBoard());
+        Task conflicted = fixtures.task(todo, user);
+        Task other = fixtures.task(todo, user);
+
+        // UPDATE ... WHERE version = ? не нашёл строку: задачу изменили между чтением и записью
+        TaskRepository racingRepository = mock(TaskRepository.class, delegatesTo(taskRepository));
+        doThrow(new ObjectOptimisticLockingFailureException(Task.class, conflicted.getId()))
+                .when(racingRepository).flush();
+
+        TaskBatchConflictException e = catchThrowableOfType(() -> service(racingRepository).execute(request(false,
+                move(conflicted.getId(), done.getId()),
+                move(other.getId(), done.getId()),
+                create(todo.getId()),
+                delete(UUID.randomUUID())
+        ), "user"), TaskBatchConflictException.class);
+
+        assertThat(e).isNotNull();
+        TaskBatchResponse response = e.getResponse();
+        assertThat(response.getResults()).extracting(TaskBatchItemResult::getStatus).containsExactly(
+                TaskBatchItemStatus.CONFLICT,
+                TaskBatchItemStatus.SKIPPED,
+                TaskBatchItemStatus.SKIPPED,
+                TaskBatchItemStatus.NOT_FOUND
+        );
+        assertThat(response.getResults().get(0).getTaskId()).isEqualTo(conflicted.getId());
+        assertThat(response.getSucceeded()).isZero();
+        assertThat(response.getFailed()).isEqualTo(4);
+        verifyNoInteractions(taskCounterService, boardEventPublisher, activityLogService);
+    }
+
+    private TaskBatchService service() {
+        return service(taskRepository);
+    }
+
+    private TaskBatchService service(TaskRepository tasks) {
+        return new TaskBatchService(tasks, columnRepository, userRepository, activityLogService,
+                boardEventPublisher, boardChangeService, taskCounterService, 500);
+    }
+
+    private static TaskBatchRequest request(boolean atomic, TaskBatchOperation... operations) {
+        TaskBatchRequest request = new TaskBatchRequest();
+        request.setAtomic(atomic);
+        request.setOperations(List.of(operations));
+        return request;
+    }
+
+    private static TaskBatchOperation op(TaskBatchOperationType type) {
+        TaskBatchOperation op = new TaskBatchOperation();
+        op.setType(type);
+        return op;
+    }
+
+    private TaskBatchOperation create(UUID columnId) {
+        TaskRequest task = new TaskRequest();
+        task.setTitle("new");
+        task.setStatus(TaskStatus.TODO);
+        task.setPriority(TaskPriority.LOW);
+        task.setColumnId(columnId);
+        task.setAssigneeIds(List.of(user.getId()));
+        TaskBatchOperation op = op(TaskBatchOperationType.CREATE);
+        op.setTask(task);
+        return op;
+    }
+
+    private static TaskBatchOperation move(UUID taskId, UUID columnId) {
+        TaskBatchOperation op = op(TaskBatchOperationType.MOVE);
+        op.setTaskId(taskId);
+        op.setColumnId(columnId);
+        return op;
+    }
+
+    private static TaskBatchOperation delete(UUID taskId) {
+        TaskBatchOperation op = op(TaskBatchOperationType.DELETE);
+        op.setTaskId(taskId);
+        return op;
+    }
+
+    private static TaskBatchOperation versioned(TaskBatchOperation op, long version) {
+        op.setVersion(version);
+        return op;
+    }
+}
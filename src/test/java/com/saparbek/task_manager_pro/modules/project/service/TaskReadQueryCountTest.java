@@ -0,0 +1,151 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskFilterRequest;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import com.saparbek.task_manager_pro.modules.project.model.ColumnEntity;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskStatus;
+import com.saparbek.task_manager_pro.modules.project.repository.ColumnRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import com.saparbek.task_manager_pro.modules.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Число SQL-запросов на чтение списков задач не должно зависеть от числа задач (без N+1 по исполнителям)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TaskReadQueryCountTest {
+
+    private static final int SMALL = 3;
+    private static final int LARGE = 40;
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ColumnRepository columnRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private TaskService service;
+    private ProjectFixtures fixtures;
+    private Statistics statistics;
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        // Для чтения нужны только репозитории — как в JMH-бенчмарках
+        service = new TaskService(taskRepository, columnRepository, userRepository, null, null, null, null);
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        fixtures = new ProjectFixtures(entityManager);
+        users = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            users.add(fixtures.user("user" + i));
+        }
+    }
+
+    @Test
+    void getTasksByColumnUsesConstantQueries() {
+        ColumnEntity small = column(SMALL);
+        ColumnEntity large = column(LARGE);
+
+        long smallQueries = queries(() -> service.getTasksByColumn(small.getId()), SMALL);
+        long largeQueries = queries(() -> service.getTasksByColumn(large.getId()), LARGE);
+
+        assertThat(largeQueries).isEqualTo(smallQueries).isEqualTo(2);
+    }
+
+    @Test
+    void filterTasksUsesConstantQueries() {
+        ColumnEntity small = column(SMALL);
+        ColumnEntity large = column(LARGE);
+
+        long smallQueries = queries(() -> service.filterTasks(TaskStatus.TODO, null, null, small.getId(), null,
+                PageRequest.of(0, 100)).getContent(), SMALL);
+        long largeQueries = queries(() -> service.filterTasks(TaskStatus.TODO, null, null, large.getId(), null,
+                PageRequest.of(0, 100)).getContent(), LARGE);
+
+        assertThat(largeQueries).isEqualTo(smallQueries).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void filterTasksPostUsesConstantQueries() {
+        ColumnEntity small = column(SMALL);
+        ColumnEntity large = column(LARGE);
+
+        long smallQueries = queries(() -> service.filterTasksPost(filter(small)), SMALL);
+        long largeQueries = queries(() -> service.filterTasksPost(filter(large)), LARGE);
+
+        assertThat(largeQueries).isEqualTo(smallQueries).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void getTasksForTodayUsesConstantQueries() {
+        column(SMALL);
+        long smallQueries = queries(() -> service.getTasksForToday(users.get(0).getId(), LocalDate.now()), SMALL);
+
+        column(LARGE - SMALL);
+        long largeQueries = queries(() -> service.getTasksForToday(users.get(0).getId(), LocalDate.now()), LARGE);
+
+        assertThat(largeQueries).isEqualTo(smallQueries).isEqualTo(2);
+    }
+
+    @Test
+    void getTasksByAssigneePageUsesConstantQueries() {
+        column(SMALL);
+        long smallQueries = queries(() -> service.getTasksByAssigneePage(users.get(0).getId(), null, 100).getItems(), SMALL);
+
+        column(LARGE - SMALL);
+        long largeQueries = queries(() -> service.getTasksByAssigneePage(users.get(0).getId(), null, 100).getItems(), LARGE);
+
+        assertThat(largeQueries).isEqualTo(smallQueries).isEqualTo(2);
+    }
+
+    // Свежий persistence context, чтобы задачи и исполнители читались из БД, а не из кэша сессии
+    private long queries(Supplier<List<TaskResponse>> read, int expectedTasks) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<TaskResponse> tasks = read.get();
+
+        assertThat(tasks).hasSize(expectedTasks);
+        assertThat(tasks).allSatisfy(task -> assertThat(task.getAssigneeUsernames()).hasSize(2));
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Колонка со своими доской и проектом; у каждой задачи два исполнителя, первый — всегда users[0]
+    private ColumnEntity column(int taskCount) {
+        User owner = users.get(0);
+        ColumnEntity column = fixtures.column(fixtures.board(owner));
+        for (int i = 0; i < taskCount; i++) {
+            fixtures.persist(fixtures.newTask(column, owner, users.get(1 + i % 2))
+                    .title("task" + i)
+                    .deadline(LocalDate.now())
+                    .build());
+        }
+        return column;
+    }
+
+    private TaskFilterRequest filter(ColumnEntity column) {
+        TaskFilterRequest request = new TaskFilterRequest();
+        request.setStatuses(List.of(TaskStatus.TODO));
+        request.setAssigneeId(users.get(0).getId());
+        request.setColumnId(column.getId());
+        return request;
+    }
+}
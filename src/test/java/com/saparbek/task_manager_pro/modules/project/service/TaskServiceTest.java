@@ -0,0 +1,221 @@
+package com.saparbek.task_manager_pro.modules.project.service;
+
+import com.saparbek.task_manager_pro.modules.activity.model.ActivityEvent;
+import com.saparbek.task_manager_pro.modules.activity.service.ActivityLogService;
+import com.saparbek.task_manager_pro.modules.project.dto.task.TaskResponse;
+import com.saparbek.task_manager_pro.modules.project.exception.TaskConflictException;
+import com.saparbek.task_manager_pro.modules.project.model.BoardTombstone;
+import com.saparbek.task_manager_pro.modules.project.model.ColumnEntity;
+import com.saparbek.task_manager_pro.modules.project.model.Task;
+import com.saparbek.task_manager_pro.modules.project.model.enums.BoardEventType;
+import com.saparbek.task_manager_pro.modules.project.model.enums.TaskPriority;
+import com.saparbek.task_manager_pro.modules.project.repository.BoardRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.BoardTombstoneRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.ColumnRepository;
+import com.saparbek.task_manager_pro.modules.project.repository.TaskRepository;
+import com.saparbek.task_manager_pro.modules.user.model.User;
+import com.saparbek.task_manager_pro.modules.user.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+// PUT/PATCH задачи на настоящих репозиториях (H2); счётчики, журнал и события доски — моки
+@DataJpaTest
+class TaskServiceTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private ColumnRepository columnRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private BoardRepository boardRepository;
+    @Autowired
+    private BoardTombstoneRepository tombstoneRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private BoardChangeService boardChangeService;
+    private TaskCounterService taskCounterService;
+    private BoardEventPublisher boardEventPublisher;
+    private ActivityLogService activityLogService;
+    private ProjectFixtures fixtures;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        boardChangeService = new BoardChangeService(boardRepository, columnRepository, taskRepository, tombstoneRepository, 30);
+        taskCounterService = mock(TaskCounterService.class);
+        boardEventPublisher = mock(BoardEventPublisher.class);
+        activityLogService = mock(ActivityLogService.class);
+        fixtures = new ProjectFixtures(entityManager);
+        user = fixtures.user("user");
+    }
+
+    @Test
+    void patchChangesOnlyGivenFields() {
+        ColumnEntity column = fixtures.column(fixtures.board(user));
+        Task task = fixtures.task(column, user);
+
+        TaskResponse response = service().patchTask(task.getId(), updates(
+                "version", task.getVersion(),
+                "title", "renamed",
+                "deadline", "2030-01-15"
+        ), "user");
+
+        assertThat(response.getTitle()).isEqualTo("renamed");
+        assertThat(response.getDeadline()).isEqualTo(LocalDate.of(2030, 1, 15));
+        assertThat(response.getDescription()).isEqualTo("description");
+        assertThat(response.getPriority()).isEqualTo(TaskPriority.MEDIUM);
+        assertThat(response.getAssigneeUsernames()).containsExactly("user");
+        assertThat(response.getVersion()).isEqualTo(task.getVersion() + 1);
+        assertThat(boardRepository.findChangeSeq(column.getBoard().getId())).contains(1L);
+        verify(activityLogService).logEvent(eq(ActivityEvent.TASK_UPDATED), eq("user"), any(), eq(task.getId()), any());
+        verify(boardEventPublisher).publish(eq(BoardEventType.TASK_UPDATED), any(), eq(task.getId()), eq(1L), any());
+    }
+
+    @Test
+    void patchWithoutChangesDoesNotBumpSeqOrVersion() {
+        ColumnEntity column = fixtures.column(fixtures.board(user));
+        Task task = fixtures.task(column, user);
+
+        TaskResponse empty = service().patchTask(task.getId(), updates(), "user");
+        // Те же значения и перенос в ту же колонку — тоже не изменение
+        TaskResponse same = service().patchTask(task.getId(), updates(
+                "title", "task",
+                "status", "TODO",
+                "columnId", column.getId().toString(),
+                "assigneeIds", List.of(user.getId().toString())
+        ), "user");
+        fixtures.reload();
+
+        assertThat(empty.getVersion()).isEqualTo(task.getVersion());
+        assertThat(same.getVersion()).isEqualTo(task.getVersion());
+        assertThat(same.getAssigneeIds()).containsExactly(user.getId());
+        assertThat(taskRepository.findVersionById(task.getId())).contains(task.getVersion());
+        assertThat(boardRepository.findChangeSeq(column.getBoard().getId())).contains(0L);
+        verifyNoInteractions(taskCounterService, boardEventPublisher, activityLogService);
+    }
+
+    @Test
+    void patchReplacesAssignees() {
+        ColumnEntity column = fixtures.column(fixtures.board(user));
+        Task task = fixtures.task(column, user);
+        User other = fixtures.user("other");
+
+        TaskResponse response = service().patchTask(task.getId(), updates(
+                "assigneeIds", List.of(other.getId().toString())
+        ), "user");
+
+        assertThat(response.getAssigneeIds()).containsExactly(other.getId());
+        assertThat(response.getAssigneeUsernames()).containsExactly("other");
+    }
+
+    @Test
+    void staleVersionIsRejectedWithCurrentState() {
+        ColumnEntity column = fixtures.column(fixtures.board(user));
+        Task task = fixtures.task(column, user);
+
+        TaskConflictException e = catchThrowableOfType(() -> service().patchTask(task.getId(), updates(
+                "version", task.getVersion() + 1,
+                "title", "lost update"
+        ), "user"), TaskConflictException.class);
+
+        assertThat(e).isNotNull();
+        assertThat(e.getCurrent().getTitle()).isEqualTo("task");
+        assertThat(e.getCurrent().getVersion()).isEqualTo(task.getVersion());
+        assertThat(e.getCurrent().getAssigneeIds()).containsExactly(user.getId());
+        assertThat(boardRepository.findChangeSeq(column.getBoard().getId())).contains(0L);
+        verifyNoInteractions(boardEventPublisher, activityLogService);
+    }
+
+    @Test
+    void concurrentWriteAtFlushIsNotPublished() {
+        ColumnEntity column = fixtures.column(fixtures.board(user));
+        Task task = fixtures.task(column, user);
+
+        // Версия совпала при чтении, но UPDATE ... WHERE version = ? уже не нашёл строку
+        TaskRepository racingRepository = mock(TaskRepository.class, delegatesTo(taskRepository));
+        doThrow(new ObjectOptimisticLockingFailureException(Task.class, task.getId()))
+                .when(racingRepository).saveAndFlush(any());
+
+        assertThatThrownBy(() -> service(racingRepository).patchTask(task.getId(), updates(
+                "version", task.getVersion(),
+                "title", "renamed"
+        ), "user")).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verifyNoInteractions(boardEventPublisher, activityLogService);
+    }
+
+    @Test
+    void invalidFieldIsBadRequest() {
+        Task task = fixtures.task(fixtures.column(fixtures.board(user)), user);
+
+        ResponseStatusException e = catchThrowableOfType(() -> service().patchTask(task.getId(), updates(
+                "priority", "URGENT"
+        ), "user"), ResponseStatusException.class);
+
+        assertThat(e).isNotNull();
+        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void moveToAnotherBoardLeavesTombstoneOnSource() {
+        ColumnEntity source = fixtures.column(fixtures.board(user));
+        ColumnEntity target = fixtures.column(fixtures.board(user));
+        Task task = fixtures.task(source, user);
+
+        TaskResponse response = service().patchTask(task.getId(), updates(
+                "columnId", target.getId().toString()
+        ), "user");
+        fixtures.reload();
+
+        assertThat(response.getColumnId()).isEqualTo(target.getId());
+        assertThat(boardRepository.findChangeSeq(target.getBoard().getId())).contains(1L);
+        assertThat(tombstoneRepository.findAllByBoardIdAndChangeSeqBetweenOrderByChangeSeq(source.getBoard().getId(), 0, Long.MAX_VALUE))
+                .extracting(BoardTombstone::getEntityId, BoardTombstone::getChangeSeq)
+                .containsExactly(tuple(task.getId(), 1L));
+        verify(activityLogService).logEvent(eq(ActivityEvent.TASK_MOVED), eq("user"), any(), eq(task.getId()), any());
+        verify(boardEventPublisher).publish(eq(BoardEventType.TASK_DELETED), any(), eq(task.getId()), eq(1L), any());
+    }
+
+    private TaskService service() {
+        return service(taskRepository);
+    }
+
+    private TaskService service(TaskRepository tasks) {
+        return new TaskService(tasks, columnRepository, userRepository, activityLogService,
+                boardEventPublisher, boardChangeService, taskCounterService);
+    }
+
+    private static Map<String, Object> updates(Object... keyValues) {
+        Map<String, Object> updates = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            updates.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return updates;
+    }
+
+}